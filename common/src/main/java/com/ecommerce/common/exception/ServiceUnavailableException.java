@@ -0,0 +1,8 @@
+package com.ecommerce.common.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.ecommerce.common.exception;
+
+public class UnprocessableEntityException extends RuntimeException {
+    
+    public UnprocessableEntityException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
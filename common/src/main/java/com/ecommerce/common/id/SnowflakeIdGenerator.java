@@ -0,0 +1,58 @@
+package com.ecommerce.common.id;
+
+/**
+ * Time-ordered 64-bit ID generator in the Snowflake layout:
+ * 41 bits of milliseconds since {@link #EPOCH_MILLIS}, 10 bits of node ID and a 12-bit sequence.
+ * IDs are unique across nodes as long as every running instance has a distinct node ID, so the
+ * node ID must be assigned explicitly per instance rather than guessed.
+ */
+public class SnowflakeIdGenerator {
+    
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    
+    private static final int NODE_SHIFT = SEQUENCE_BITS;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + NODE_BITS;
+    
+    private final long nodeId;
+    private long lastTimestamp = -1L;
+    private long sequence;
+    
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+    
+    /**
+     * Returns the next ID. If the wall clock moves backwards or the sequence for the current
+     * millisecond is exhausted, the logical timestamp advances instead of blocking, so IDs stay monotonic.
+     */
+    public synchronized long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            sequence = 0;
+        } else {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                lastTimestamp++;
+            }
+        }
+        return (lastTimestamp << TIMESTAMP_SHIFT) | (nodeId << NODE_SHIFT) | sequence;
+    }
+    
+    public long getNodeId() {
+        return nodeId;
+    }
+    
+    public static long extractTimestampMillis(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+}
\ No newline at end of file
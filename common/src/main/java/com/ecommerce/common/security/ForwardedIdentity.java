@@ -0,0 +1,44 @@
+package com.ecommerce.common.security;
+
+/**
+ * Caller identity taken from verified identity headers; the principal services see for
+ * requests that came through the gateway or from another service.
+ */
+public class ForwardedIdentity {
+    
+    private final String userId;
+    private final String role;
+    
+    public ForwardedIdentity(String userId, String role) {
+        this.userId = userId;
+        this.role = role;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    /**
+     * @return the user ID as a number, or null for service callers
+     */
+    public Long getUserIdAsLong() {
+        try {
+            return Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    public boolean hasRole(String expected) {
+        return expected.equals(role);
+    }
+    
+    @Override
+    public String toString() {
+        return userId;
+    }
+}
\ No newline at end of file
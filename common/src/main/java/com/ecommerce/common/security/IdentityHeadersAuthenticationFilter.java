@@ -0,0 +1,66 @@
+package com.ecommerce.common.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests from the identity headers signed by the api-gateway or a peer service.
+ * <p>
+ * Requests without identity headers stay anonymous; requests whose headers are forged, stale
+ * or incomplete are rejected with 401 rather than treated as anonymous.
+ */
+public class IdentityHeadersAuthenticationFilter extends OncePerRequestFilter {
+    
+    private final IdentityHeaders identityHeaders;
+    private final long maxSkewSeconds;
+    
+    public IdentityHeadersAuthenticationFilter(IdentityHeaders identityHeaders, long maxSkewSeconds) {
+        this.identityHeaders = identityHeaders;
+        this.maxSkewSeconds = maxSkewSeconds;
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (IdentityHeaders.ALL.stream().allMatch(name -> request.getHeader(name) == null)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        String userId = request.getHeader(IdentityHeaders.USER_ID);
+        String role = request.getHeader(IdentityHeaders.USER_ROLE);
+        boolean valid = identityHeaders.verify(
+            userId,
+            role,
+            request.getHeader(IdentityHeaders.TIMESTAMP),
+            request.getHeader(IdentityHeaders.SIGNATURE),
+            maxSkewSeconds
+        );
+        if (!valid) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid identity headers");
+            return;
+        }
+        
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            new ForwardedIdentity(userId, role),
+            null,
+            List.of(new SimpleGrantedAuthority("ROLE_" + role))
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        filterChain.doFilter(request, response);
+    }
+}
\ No newline at end of file
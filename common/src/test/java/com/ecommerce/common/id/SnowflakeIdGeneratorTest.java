@@ -0,0 +1,46 @@
+package com.ecommerce.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+	@Test
+	void idsAreUniqueAndIncreasing() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+		Set<Long> ids = new HashSet<>();
+		long previous = -1;
+		for (int i = 0; i < 100_000; i++) {
+			long id = generator.nextId();
+			assertTrue(id > previous);
+			assertTrue(ids.add(id));
+			previous = id;
+		}
+	}
+
+	@Test
+	void idEmbedsCreationTime() {
+		long before = System.currentTimeMillis();
+		long id = new SnowflakeIdGenerator(1).nextId();
+		long after = System.currentTimeMillis();
+
+		long timestamp = SnowflakeIdGenerator.extractTimestampMillis(id);
+		assertTrue(timestamp >= before && timestamp <= after);
+	}
+
+	@Test
+	void rejectsOutOfRangeNodeId() {
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+		assertThrows(IllegalArgumentException.class,
+			() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+		assertEquals(SnowflakeIdGenerator.MAX_NODE_ID,
+			new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID).getNodeId());
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An upstream response stored by the gateway. It is fresh for the route's TTL, then may be
+ * served stale for the stale-while-revalidate window while one background request refreshes it.
+ */
+public final class CachedResponse {
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    
+    private final String key;
+    private final String routeId;
+    private final String path;
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long storedAtMillis;
+    private final Duration timeToLive;
+    private final Duration staleWhileRevalidate;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    
+    CachedResponse(String key, String routeId, String path, int status, HttpHeaders headers, byte[] body,
+                   long storedAtMillis, Duration timeToLive, Duration staleWhileRevalidate) {
+        this.key = key;
+        this.routeId = routeId;
+        this.path = path;
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.storedAtMillis = storedAtMillis;
+        this.timeToLive = timeToLive;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public String getRouteId() {
+        return routeId;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+    
+    public byte[] getBody() {
+        return body;
+    }
+    
+    public String getETag() {
+        return headers.getETag();
+    }
+    
+    public long getStoredAtMillis() {
+        return storedAtMillis;
+    }
+    
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+    
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+    
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < storedAtMillis + timeToLive.toMillis();
+    }
+    
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis();
+    }
+    
+    public long expiresAtMillis() {
+        return storedAtMillis + timeToLive.toMillis() + staleWhileRevalidate.toMillis();
+    }
+    
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+    
+    /**
+     * Claims the single background revalidation for this entry.
+     *
+     * @return false if another request already started one
+     */
+    public boolean startRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+    
+    public void revalidationFailed() {
+        revalidating.set(false);
+    }
+    
+    /**
+     * Approximate memory footprint, used to bound the cache in bytes.
+     */
+    int weight() {
+        long bytes = ENTRY_OVERHEAD_BYTES + body.length + 2L * (key.length() + path.length());
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            bytes += 2L * header.getKey().length();
+            for (String value : header.getValue()) {
+                bytes += 2L * value.length();
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,246 @@
+package com.ecommerce.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Byte-bounded store of upstream GET responses for routes with the {@code ResponseCache} filter.
+ * <p>
+ * Keys are the route, path and query, the hashed {@code Authorization} header (so one caller's
+ * response is never served to another) and the values of every request header the response
+ * listed in {@code Vary}. The Vary header names seen for a path are remembered so lookups can
+ * build the same key before the response is known.
+ */
+@Component
+public class GatewayResponseCache {
+    
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+        "connection", "keep-alive", "transfer-encoding", "upgrade", "proxy-connection",
+        "set-cookie", "age", "x-cache");
+    
+    @Value("${gateway.response-cache.max-size:64MB}")
+    private DataSize maxSize;
+    
+    @Value("${gateway.response-cache.max-entry-size:1MB}")
+    private DataSize maxEntrySize;
+    
+    @Value("${gateway.response-cache.max-vary-keys:10000}")
+    private long maxVaryKeys;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Cache<String, CachedResponse> responses;
+    
+    // Base key (route, path and query) to the Vary header names of its last stored response
+    private Cache<String, List<String>> varyHeaderNames;
+    
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((String key, CachedResponse response) -> response.weight())
+            .expireAfter(new Expiry<String, CachedResponse>() {
+                @Override
+                public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                    return nanosUntilExpiry(response);
+                }
+                
+                @Override
+                public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                    return nanosUntilExpiry(response);
+                }
+                
+                @Override
+                public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        varyHeaderNames = Caffeine.newBuilder()
+            .maximumSize(maxVaryKeys)
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gatewayResponses");
+    }
+    
+    public CachedResponse get(String routeId, ServerHttpRequest request) {
+        String baseKey = baseKey(routeId, request);
+        List<String> vary = varyHeaderNames.getIfPresent(baseKey);
+        return responses.getIfPresent(key(baseKey, request, vary != null ? vary : Collections.emptyList()));
+    }
+    
+    public void put(String routeId, ServerHttpRequest request, int status, HttpHeaders headers, byte[] body,
+                    Duration timeToLive, Duration staleWhileRevalidate) {
+        if (!isCacheable(headers) || body.length > maxEntrySize.toBytes()) {
+            return;
+        }
+        String baseKey = baseKey(routeId, request);
+        List<String> vary = varyNames(headers);
+        varyHeaderNames.put(baseKey, vary);
+        String key = key(baseKey, request, vary);
+        responses.put(key, new CachedResponse(key, routeId, request.getURI().getRawPath(), status,
+            storableHeaders(headers), body, System.currentTimeMillis(), timeToLive, staleWhileRevalidate));
+    }
+    
+    /**
+     * Replaces a revalidated entry. With null headers and body (a 304) the stored response is
+     * kept and only its freshness restarts.
+     */
+    public void refresh(CachedResponse previous, HttpHeaders headers, byte[] body) {
+        CachedResponse refreshed;
+        if (headers == null) {
+            refreshed = new CachedResponse(previous.getKey(), previous.getRouteId(), previous.getPath(),
+                previous.getStatus(), previous.getHeaders(), previous.getBody(), System.currentTimeMillis(),
+                previous.getTimeToLive(), previous.getStaleWhileRevalidate());
+        } else if (isCacheable(headers) && body.length <= maxEntrySize.toBytes()) {
+            refreshed = new CachedResponse(previous.getKey(), previous.getRouteId(), previous.getPath(),
+                previous.getStatus(), storableHeaders(headers), body, System.currentTimeMillis(),
+                previous.getTimeToLive(), previous.getStaleWhileRevalidate());
+        } else {
+            remove(previous);
+            return;
+        }
+        responses.asMap().replace(previous.getKey(), previous, refreshed);
+    }
+    
+    public void remove(CachedResponse response) {
+        responses.asMap().remove(response.getKey(), response);
+    }
+    
+    public int purgeByPathPrefix(String prefix) {
+        return purge(response -> response.getPath().startsWith(prefix));
+    }
+    
+    public int purgeAll() {
+        return purge(response -> true);
+    }
+    
+    private int purge(Predicate<CachedResponse> predicate) {
+        List<String> keys = new ArrayList<>();
+        responses.asMap().forEach((key, response) -> {
+            if (predicate.test(response)) {
+                keys.add(key);
+            }
+        });
+        responses.invalidateAll(keys);
+        return keys.size();
+    }
+    
+    public long size() {
+        return responses.estimatedSize();
+    }
+    
+    public long sizeBytes() {
+        return responses.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+    }
+    
+    public long maxSizeBytes() {
+        return maxSize.toBytes();
+    }
+    
+    public long maxEntrySizeBytes() {
+        return maxEntrySize.toBytes();
+    }
+    
+    /**
+     * Whether the response headers allow a shared cache to store the response.
+     */
+    public boolean isCacheable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT);
+        if (cacheControl.contains("no-store") || cacheControl.contains("private") || cacheControl.contains("no-cache")) {
+            return false;
+        }
+        if (headers.getVary().contains("*")) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        return contentLength <= maxEntrySize.toBytes();
+    }
+    
+    private static String baseKey(String routeId, ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        return key.toString();
+    }
+    
+    private static String key(String baseKey, ServerHttpRequest request, List<String> vary) {
+        StringBuilder key = new StringBuilder(baseKey);
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        key.append("\nauthorization=").append(authorization != null ? digest(authorization) : "");
+        for (String name : vary) {
+            key.append('\n').append(name).append('=').append(String.join(",", request.getHeaders().getOrEmpty(name)));
+        }
+        return key.toString();
+    }
+    
+    private static List<String> varyNames(HttpHeaders headers) {
+        List<String> names = new ArrayList<>();
+        for (String name : headers.getVary()) {
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            // Authorization is always part of the key
+            if (!normalized.isEmpty() && !normalized.equals("authorization") && !names.contains(normalized)) {
+                names.add(normalized);
+            }
+        }
+        Collections.sort(names);
+        return List.copyOf(names);
+    }
+    
+    private static HttpHeaders storableHeaders(HttpHeaders headers) {
+        HttpHeaders stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            String normalized = name.toLowerCase(Locale.ROOT);
+            // CORS headers are added per request by the gateway itself
+            if (!UNSTORED_HEADERS.contains(normalized) && !normalized.startsWith("access-control-")) {
+                stored.put(name, List.copyOf(values));
+            }
+        });
+        return stored;
+    }
+    
+    private static long nanosUntilExpiry(CachedResponse response) {
+        long millis = response.expiresAtMillis() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+    }
+    
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
\ No newline at end of file
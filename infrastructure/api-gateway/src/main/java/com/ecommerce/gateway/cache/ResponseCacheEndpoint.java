@@ -0,0 +1,41 @@
+package com.ecommerce.gateway.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin view of the gateway response cache at {@code /actuator/responsecache}, served only on the
+ * unpublished management port. A DELETE purges entries whose path starts with the {@code prefix}
+ * parameter, or everything without one. Purges apply to this gateway instance only.
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+    
+    @Autowired
+    private GatewayResponseCache responseCache;
+    
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", responseCache.size());
+        stats.put("sizeBytes", responseCache.sizeBytes());
+        stats.put("maxSizeBytes", responseCache.maxSizeBytes());
+        return stats;
+    }
+    
+    @DeleteOperation
+    public Map<String, Object> purge(@Nullable String prefix) {
+        int purged = prefix == null || prefix.isEmpty()
+            ? responseCache.purgeAll()
+            : responseCache.purgeByPathPrefix(prefix);
+        return Map.of("purged", purged);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.ecommerce.gateway.config;
+
+import com.ecommerce.common.security.IdentityHeaders;
+import com.ecommerce.common.security.JwtTokenVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Secrets have no defaults: the gateway fails to start unless both are provided.
+ */
+@Configuration
+public class EdgeSecurityConfig {
+    
+    /**
+     * Verifies tokens at the edge; the secret must match user-service.
+     */
+    @Bean
+    public JwtTokenVerifier jwtTokenVerifier(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.verified-cache.max-size:10000}") long cacheMaxSize) {
+        return new JwtTokenVerifier(secret, cacheMaxSize);
+    }
+    
+    /**
+     * Signs the identity headers forwarded to services. The secret must match the one
+     * services use to verify them, and differ from the JWT secret.
+     */
+    @Bean
+    public IdentityHeaders identityHeaders(@Value("${identity.signing-secret}") String signingSecret) {
+        return new IdentityHeaders(signingSecret);
+    }
+}
\ No newline at end of file
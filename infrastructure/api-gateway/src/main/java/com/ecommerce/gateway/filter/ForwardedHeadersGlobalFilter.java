@@ -0,0 +1,47 @@
+package com.ecommerce.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Drops client-supplied forwarding headers, so the X-Forwarded-* values the gateway adds when
+ * routing hold only the address it actually accepted the connection from.
+ * <p>
+ * Services trust X-Forwarded-For from private addresses. Clients reaching the gateway through the
+ * Docker host arrive from a private bridge address, so an appended header would let them pick the
+ * client IP services see, and with it their per-IP throttles.
+ */
+@Component
+public class ForwardedHeadersGlobalFilter implements GlobalFilter, Ordered {
+    
+    private static final List<String> FORWARDED_HEADERS = List.of(
+        HttpHeaders.FORWARDED,
+        "X-Forwarded-For",
+        "X-Forwarded-Host",
+        "X-Forwarded-Port",
+        "X-Forwarded-Proto",
+        "X-Forwarded-Prefix"
+    );
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (FORWARDED_HEADERS.stream().noneMatch(exchange.getRequest().getHeaders()::containsKey)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate()
+            .request(request -> request.headers(headers -> FORWARDED_HEADERS.forEach(headers::remove)))
+            .build());
+    }
+    
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.ecommerce.gateway.filter;
+
+import com.ecommerce.common.security.IdentityHeaders;
+import com.ecommerce.common.security.JwtTokenVerifier;
+import com.ecommerce.gateway.security.UserStatusChecker;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies bearer tokens once at the edge and forwards the caller's identity as signed headers.
+ * <p>
+ * Client-supplied identity headers are always stripped. Requests without a token pass through
+ * anonymously; requests with an invalid, expired or revoked token are rejected with 401, and
+ * with 503 while revocation cannot be checked.
+ */
+@Component
+public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
+    
+    /**
+     * Exchange attribute holding the verified user ID, for filters that run later.
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationGlobalFilter.class.getName() + ".userId";
+    
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    @Autowired
+    private JwtTokenVerifier jwtVerifier;
+    
+    @Autowired
+    private IdentityHeaders identityHeaders;
+    
+    @Autowired
+    private UserStatusChecker userStatusChecker;
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        
+        Claims claims = null;
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            claims = jwtVerifier.verify(authHeader.substring(BEARER_PREFIX.length()));
+            if (claims == null || Boolean.FALSE.equals(claims.get("active", Boolean.class))) {
+                return reject(exchange, HttpStatus.UNAUTHORIZED);
+            }
+        }
+        
+        Object userId = claims != null ? claims.get("uid") : null;
+        String role = claims != null ? claims.get("role", String.class) : null;
+        ServerHttpRequest.Builder request = exchange.getRequest().mutate()
+            .headers(headers -> IdentityHeaders.ALL.forEach(headers::remove));
+        
+        // Tokens issued before user claims were embedded only carry the email; user-service still accepts them
+        if (userId == null || role == null) {
+            return chain.filter(exchange.mutate().request(request.build()).build());
+        }
+        
+        String id = userId.toString();
+        return userStatusChecker.check(id, role).flatMap(status -> switch (status) {
+            case CURRENT -> {
+                request.headers(headers -> identityHeaders.apply(headers, id, role));
+                exchange.getAttributes().put(USER_ID_ATTRIBUTE, id);
+                yield chain.filter(exchange.mutate().request(request.build()).build());
+            }
+            case REVOKED -> reject(exchange, HttpStatus.UNAUTHORIZED);
+            case UNKNOWN -> reject(exchange, HttpStatus.SERVICE_UNAVAILABLE);
+        });
+    }
+    
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        if (status == HttpStatus.UNAUTHORIZED) {
+            exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        }
+        return exchange.getResponse().setComplete();
+    }
+    
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
\ No newline at end of file
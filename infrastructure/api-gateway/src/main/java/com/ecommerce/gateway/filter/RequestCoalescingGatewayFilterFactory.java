@@ -0,0 +1,228 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses concurrent identical GETs on a route into one upstream call. Configured on a route
+ * with {@code RequestCoalescing=<maxWait>}, e.g. {@code RequestCoalescing=2s}.
+ * <p>
+ * The first request for a key goes upstream; requests for the same key that arrive while it is
+ * in flight wait for its response and get a copy. A waiter that does not get a response within
+ * {@code maxWait}, or whose leader's response cannot be shared, makes its own upstream call.
+ * Requests are identical when route, path, query and the Authorization, Accept, Origin and
+ * conditional headers match.
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    private static final List<String> KEY_HEADERS = List.of(
+        HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE,
+        HttpHeaders.ORIGIN, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+        "connection", "keep-alive", "transfer-encoding", "upgrade", "proxy-connection");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.coalescing.max-body-size:1MB}")
+    private DataSize maxBodySize;
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RouteStats> routeStats = new ConcurrentHashMap<>();
+
+    public RequestCoalescingGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWait");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getMaxWait() == null || config.getMaxWait().isNegative() || config.getMaxWait().isZero()) {
+            throw new IllegalArgumentException("RequestCoalescing requires a positive maxWait");
+        }
+
+        // Runs after the response cache, so only cache misses are coalesced
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            RouteStats stats = statsFor(route != null ? route.getId() : "default");
+            String key = key(route != null ? route.getId() : "default", request);
+
+            Sinks.One<SharedResponse> flight = Sinks.one();
+            Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, flight);
+            if (leader != null) {
+                return leader.asMono()
+                    .timeout(config.getMaxWait())
+                    .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                    .flatMap(shared -> {
+                        stats.shared.increment();
+                        return writeShared(exchange, shared).thenReturn(true);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        stats.fallback.increment();
+                        return chain.filter(exchange).thenReturn(true);
+                    }))
+                    .then();
+            }
+
+            stats.leader.increment();
+            ServerHttpResponse capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (getHeaders().containsKey(HttpHeaders.SET_COOKIE) || getHeaders().getContentLength() > maxBodySize.toBytes()) {
+                        land(key, flight, null);
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        HttpStatusCode status = getStatusCode();
+                        land(key, flight, bytes.length > maxBodySize.toBytes() ? null
+                            : new SharedResponse(status != null ? status.value() : 200, shareableHeaders(getHeaders()), bytes));
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+                }
+            };
+            // Errors, cancellation and bodiless responses release the waiters to go upstream themselves
+            return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> land(key, flight, null));
+        }, JwtAuthenticationGlobalFilter.ORDER + 3);
+    }
+
+    /**
+     * Ends a flight. It is removed before waiters are released so later requests start a new one.
+     */
+    private void land(String key, Sinks.One<SharedResponse> flight, SharedResponse response) {
+        inFlight.remove(key, flight);
+        if (response != null) {
+            flight.tryEmitValue(response);
+        } else {
+            flight.tryEmitEmpty();
+        }
+    }
+
+    private Mono<Void> writeShared(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(shared.status));
+        response.getHeaders().putAll(shared.headers);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body)));
+    }
+
+    private static String key(String routeId, ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String name : KEY_HEADERS) {
+            key.append('\n').append(name).append('=').append(String.join(",", request.getHeaders().getOrEmpty(name)));
+        }
+        return key.toString();
+    }
+
+    private static HttpHeaders shareableHeaders(HttpHeaders headers) {
+        HttpHeaders shared = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!UNSHARED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                shared.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(shared);
+    }
+
+    private RouteStats statsFor(String routeId) {
+        return routeStats.computeIfAbsent(routeId, id -> new RouteStats(meterRegistry, id));
+    }
+
+    private static final class SharedResponse {
+
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private SharedResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Counts leaders, waiters served a shared response, and waiters that fell back to their own
+     * call. The collapse ratio is the fraction of GETs answered without their own upstream call.
+     */
+    private static final class RouteStats {
+
+        private final Counter leader;
+        private final Counter shared;
+        private final Counter fallback;
+
+        private RouteStats(MeterRegistry meterRegistry, String routeId) {
+            leader = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "outcome", "leader");
+            shared = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "outcome", "shared");
+            fallback = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "outcome", "fallback");
+            Gauge.builder("gateway.coalescing.collapse.ratio", this, RouteStats::collapseRatio)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        }
+
+        private double collapseRatio() {
+            double total = leader.count() + shared.count() + fallback.count();
+            return total == 0 ? 0 : shared.count() / total;
+        }
+    }
+
+    public static class Config {
+
+        private Duration maxWait;
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,255 @@
+package com.ecommerce.gateway.filter;
+
+import com.ecommerce.gateway.cache.CachedResponse;
+import com.ecommerce.gateway.cache.GatewayResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Serves GET responses for a route from {@link GatewayResponseCache}. Configured on a route with
+ * {@code ResponseCache=<timeToLive>,<staleWhileRevalidate>}, e.g. {@code ResponseCache=30s,60s}.
+ * <p>
+ * Within the TTL an entry is served as is. For the stale-while-revalidate window after it the
+ * stale entry is still served, while one background request revalidates it with the upstream
+ * ETag. A successful write by an authenticated caller purges, on this instance, the entries under
+ * the written resource collection: a write to {@code /api/products/5} purges {@code /api/products}
+ * and everything below it. Clients can skip the lookup with {@code Cache-Control: no-cache}.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Set<HttpMethod> UNSAFE_METHODS = Set.of(
+        HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Duration REVALIDATION_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private GatewayResponseCache responseCache;
+
+    @Autowired
+    private ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Revalidation goes straight to the service, resolved through the load balancer like lb:// routes
+    private WebClient revalidationClient;
+
+    public ResponseCacheGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @PostConstruct
+    void init() {
+        revalidationClient = WebClient.builder()
+            .filter(loadBalancerFunction)
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) responseCache.maxEntrySizeBytes()))
+            .build();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("timeToLive", "staleWhileRevalidate");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getTimeToLive() == null || config.getTimeToLive().isNegative() || config.getTimeToLive().isZero()) {
+            throw new IllegalArgumentException("ResponseCache requires a positive timeToLive");
+        }
+
+        // Runs after rate limiting, so cache hits still count against a client's limit
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "default";
+
+            if (UNSAFE_METHODS.contains(request.getMethod())) {
+                // Anonymous writes (e.g. the batch lookup POST) must not let anyone flush the cache
+                boolean authenticated = exchange.getAttribute(JwtAuthenticationGlobalFilter.USER_ID_ATTRIBUTE) != null;
+                return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (authenticated && status != null && status.is2xxSuccessful()) {
+                        responseCache.purgeByPathPrefix(collectionPath(request.getPath().value()));
+                    }
+                }));
+            }
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            if (!skipsLookup(request)) {
+                long now = System.currentTimeMillis();
+                CachedResponse cached = responseCache.get(routeId, request);
+                if (cached != null && cached.isFresh(now)) {
+                    return writeCached(exchange, cached, "HIT", now);
+                }
+                if (cached != null && !cached.isExpired(now) && canRevalidate(route)) {
+                    if (cached.startRevalidation()) {
+                        revalidate(route, request, cached);
+                    }
+                    meterRegistry.counter("gateway.response-cache.stale", "route", routeId).increment();
+                    return writeCached(exchange, cached, "STALE", now);
+                }
+            }
+
+            exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            ServerHttpResponse capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    HttpStatusCode status = getStatusCode();
+                    if (status == null || status.value() != HttpStatus.OK.value() || !responseCache.isCacheable(getHeaders())) {
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        responseCache.put(routeId, request, status.value(), getHeaders(), bytes,
+                            config.getTimeToLive(), config.getStaleWhileRevalidate());
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+                }
+            };
+            return chain.filter(exchange.mutate().response(capturing).build());
+        }, JwtAuthenticationGlobalFilter.ORDER + 2);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus, long now) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.getHeaders());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+
+        String eTag = cached.getETag();
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        if (eTag != null && (ifNoneMatch.contains(eTag) || ifNoneMatch.contains("*"))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatus()));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private void revalidate(Route route, ServerHttpRequest request, CachedResponse stale) {
+        URI uri = UriComponentsBuilder.fromUri(route.getUri())
+            .scheme("http")
+            .replacePath(request.getURI().getRawPath())
+            .replaceQuery(request.getURI().getRawQuery())
+            .build(true)
+            .toUri();
+        revalidationClient.get()
+            .uri(uri)
+            .headers(headers -> {
+                headers.addAll(request.getHeaders());
+                headers.remove(HttpHeaders.HOST);
+                headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                headers.remove(HttpHeaders.CACHE_CONTROL);
+                headers.remove(HttpHeaders.PRAGMA);
+                headers.remove(HttpHeaders.IF_NONE_MATCH);
+                if (stale.getETag() != null) {
+                    headers.setIfNoneMatch(stale.getETag());
+                }
+            })
+            .exchangeToMono(response -> {
+                int status = response.statusCode().value();
+                if (status == HttpStatus.NOT_MODIFIED.value()) {
+                    return response.releaseBody().then(Mono.fromRunnable(() -> responseCache.refresh(stale, null, null)));
+                }
+                if (status == HttpStatus.OK.value()) {
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    return response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .doOnNext(body -> responseCache.refresh(stale, headers, body))
+                        .then();
+                }
+                if (status == HttpStatus.NOT_FOUND.value() || status == HttpStatus.GONE.value()) {
+                    return response.releaseBody().then(Mono.fromRunnable(() -> responseCache.remove(stale)));
+                }
+                // Keep serving the stale entry; the next request after this one may retry
+                return response.releaseBody().then(Mono.fromRunnable(stale::revalidationFailed));
+            })
+            .timeout(REVALIDATION_TIMEOUT)
+            .onErrorResume(e -> Mono.fromRunnable(stale::revalidationFailed))
+            .subscribe();
+    }
+
+    /**
+     * The first two path segments, e.g. {@code /api/products} for {@code /api/products/5/stock}.
+     */
+    static String collectionPath(String path) {
+        int end = path.length();
+        int slashes = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/' && i > 0 && ++slashes == 2) {
+                end = i;
+                break;
+            }
+        }
+        return path.substring(0, end);
+    }
+
+    private boolean canRevalidate(Route route) {
+        return route != null && "lb".equalsIgnoreCase(route.getUri().getScheme());
+    }
+
+    private boolean skipsLookup(ServerHttpRequest request) {
+        String cacheControl = String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT);
+        return cacheControl.contains("no-cache") || cacheControl.contains("no-store")
+            || request.getHeaders().getOrEmpty(HttpHeaders.PRAGMA).contains("no-cache");
+    }
+
+    public static class Config {
+
+        private Duration timeToLive;
+        private Duration staleWhileRevalidate = Duration.ZERO;
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+    }
+}
\ No newline at end of file
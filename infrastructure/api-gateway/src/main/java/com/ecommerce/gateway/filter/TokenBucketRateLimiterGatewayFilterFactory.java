@@ -0,0 +1,128 @@
+package com.ecommerce.gateway.filter;
+
+import com.ecommerce.gateway.ratelimit.TokenBucketRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token-bucket rate limiting held in gateway memory, as an alternative to the
+ * Redis-backed {@code RequestRateLimiter}. Configured on a route with
+ * {@code TokenBucketRateLimiter=<replenishRate>,<burstCapacity>[,<requestedTokens>]}.
+ * <p>
+ * Requests are keyed by the user ID verified at the edge, then by API key when an API key
+ * header is configured, then by client IP. Each route has its own buckets. Limits apply per
+ * gateway instance.
+ */
+@Component
+public class TokenBucketRateLimiterGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<TokenBucketRateLimiterGatewayFilterFactory.Config> {
+
+    @Autowired
+    private TokenBucketRegistry tokenBucketRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Only enable when API keys are validated in front of the gateway; otherwise clients could
+    // rotate made-up keys to get fresh buckets
+    @Value("${gateway.rate-limit.api-key-header:}")
+    private String apiKeyHeader;
+
+    public TokenBucketRateLimiterGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("replenishRate", "burstCapacity", "requestedTokens");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getReplenishRate() <= 0 || config.getRequestedTokens() <= 0
+                || config.getBurstCapacity() < config.getRequestedTokens()) {
+            throw new IllegalArgumentException("TokenBucketRateLimiter requires replenishRate > 0 and "
+                + "burstCapacity >= requestedTokens > 0");
+        }
+
+        // Runs after the JWT filter so the verified user ID is available as the key
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "default";
+            long waitNanos = tokenBucketRegistry.tryConsume(routeId + '|' + resolveKey(exchange),
+                config.getRequestedTokens(), config.getBurstCapacity(), config.getReplenishRate());
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+
+            meterRegistry.counter("gateway.ratelimit.rejected", "route", routeId).increment();
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return exchange.getResponse().setComplete();
+        }, JwtAuthenticationGlobalFilter.ORDER + 1);
+    }
+
+    private String resolveKey(ServerWebExchange exchange) {
+        String userId = exchange.getAttribute(JwtAuthenticationGlobalFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        if (!apiKeyHeader.isEmpty()) {
+            String apiKey = exchange.getRequest().getHeaders().getFirst(apiKeyHeader);
+            if (apiKey != null && !apiKey.isBlank()) {
+                return "api-key:" + apiKey;
+            }
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            return "ip:" + remoteAddress.getAddress().getHostAddress();
+        }
+        return "ip:unknown";
+    }
+
+    public static class Config {
+
+        private double replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+    }
+}
\ No newline at end of file
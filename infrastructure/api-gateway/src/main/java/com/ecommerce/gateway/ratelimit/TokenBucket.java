@@ -0,0 +1,52 @@
+package com.ecommerce.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The state is swapped as one immutable value with compare-and-set, so
+ * concurrent requests for the same key never block each other.
+ */
+final class TokenBucket {
+    
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    private final AtomicReference<State> state;
+    
+    TokenBucket(double initialTokens, long nowNanos) {
+        this.state = new AtomicReference<>(new State(initialTokens, nowNanos));
+    }
+    
+    /**
+     * Takes the given number of tokens if available, after refilling at {@code replenishRate}
+     * tokens per second up to {@code capacity}.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until enough will be available
+     */
+    long tryConsume(int permits, double capacity, double replenishRate, long nowNanos) {
+        while (true) {
+            State current = state.get();
+            // Another thread may have stamped a later time; never move the clock backwards
+            long refilledAt = Math.max(nowNanos, current.refilledAtNanos);
+            double elapsedSeconds = (refilledAt - current.refilledAtNanos) / NANOS_PER_SECOND;
+            double tokens = Math.min(capacity, current.tokens + elapsedSeconds * replenishRate);
+            if (tokens < permits) {
+                return (long) Math.ceil((permits - tokens) / replenishRate * NANOS_PER_SECOND);
+            }
+            if (state.compareAndSet(current, new State(tokens - permits, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+    
+    private static final class State {
+        
+        private final double tokens;
+        private final long refilledAtNanos;
+        
+        private State(double tokens, long refilledAtNanos) {
+            this.tokens = tokens;
+            this.refilledAtNanos = refilledAtNanos;
+        }
+    }
+}
\ No newline at end of file
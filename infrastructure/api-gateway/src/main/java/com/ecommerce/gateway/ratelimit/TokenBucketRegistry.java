@@ -0,0 +1,50 @@
+package com.ecommerce.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Holds one token bucket per rate-limit key, in memory on this gateway instance.
+ * <p>
+ * Buckets live in a Caffeine cache, which is backed by a striped concurrent map, so lookups for
+ * different keys do not contend. Buckets idle longer than the timeout are evicted; a bucket idle
+ * that long would have refilled anyway, so eviction does not change any limit. The key count is
+ * also capped so a flood of distinct clients cannot exhaust memory.
+ */
+@Component
+public class TokenBucketRegistry {
+    
+    @Value("${gateway.rate-limit.idle-timeout-seconds:600}")
+    private long idleTimeoutSeconds;
+    
+    @Value("${gateway.rate-limit.max-keys:100000}")
+    private long maxKeys;
+    
+    private Cache<String, TokenBucket> buckets;
+    
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(Duration.ofSeconds(idleTimeoutSeconds))
+            .build();
+    }
+    
+    /**
+     * @return 0 if the request is allowed, otherwise the nanoseconds until it would be
+     */
+    public long tryConsume(String key, int permits, int burstCapacity, double replenishRate) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(burstCapacity, now));
+        return bucket.tryConsume(permits, burstCapacity, replenishRate, now);
+    }
+    
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.ecommerce.gateway.security;
+
+import com.ecommerce.common.security.IdentityHeaders;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Edge counterpart of user-service's revocation check: a token is only honoured while its user
+ * is active and still holds the token's role. Statuses come from user-service and are cached
+ * briefly, so it costs at most one call per user per TTL.
+ */
+@Component
+public class UserStatusChecker {
+    
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserStatusChecker.class);
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(2);
+    
+    public enum Status {
+        CURRENT,
+        REVOKED,
+        // user-service could not be reached; callers fail closed
+        UNKNOWN
+    }
+    
+    @Autowired
+    private ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction;
+    
+    @Autowired
+    private IdentityHeaders identityHeaders;
+    
+    @Value("${gateway.revocation-check.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${gateway.revocation-check.ttl-seconds:30}")
+    private long ttlSeconds;
+    
+    @Value("${gateway.revocation-check.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${spring.application.name}")
+    private String applicationName;
+    
+    private WebClient userServiceClient;
+    
+    // Role of each active user; empty for users that are inactive or gone. Failed lookups are not kept.
+    private AsyncCache<String, Optional<String>> activeRoles;
+    
+    @PostConstruct
+    void init() {
+        userServiceClient = WebClient.builder()
+            .baseUrl("http://user-service")
+            .filter(loadBalancerFunction)
+            .build();
+        activeRoles = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .buildAsync();
+    }
+    
+    public Mono<Status> check(String userId, String tokenRole) {
+        if (!enabled) {
+            return Mono.just(Status.CURRENT);
+        }
+        return Mono.fromFuture(() -> activeRoles.get(userId, (id, executor) -> lookup(id).toFuture()))
+            .map(role -> role.isPresent() && role.get().equals(tokenRole) ? Status.CURRENT : Status.REVOKED)
+            .onErrorResume(e -> {
+                LOGGER.warn("User status lookup for user {} failed: {}", userId, e.toString());
+                return Mono.just(Status.UNKNOWN);
+            });
+    }
+    
+    private Mono<Optional<String>> lookup(String userId) {
+        return userServiceClient.get()
+            .uri("/api/users/{id}/status", userId)
+            .headers(headers -> identityHeaders.apply(headers, applicationName, IdentityHeaders.ROLE_SERVICE))
+            .exchangeToMono(response -> {
+                if (response.statusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                    return response.releaseBody().thenReturn(Optional.<String>empty());
+                }
+                if (!response.statusCode().is2xxSuccessful()) {
+                    return response.<Optional<String>>createError();
+                }
+                return response.bodyToMono(JsonNode.class).map(body -> {
+                    JsonNode status = body.path("data");
+                    return status.path("active").asBoolean(false)
+                        ? Optional.ofNullable(status.path("role").textValue())
+                        : Optional.<String>empty();
+                });
+            })
+            .timeout(LOOKUP_TIMEOUT);
+    }
+}
\ No newline at end of file
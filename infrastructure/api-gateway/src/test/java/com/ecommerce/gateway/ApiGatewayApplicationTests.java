@@ -3,7 +3,10 @@ package com.ecommerce.gateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"jwt.secret=testJwtSecretThatIsAtLeastThirtyTwoBytesLong",
+		"identity.signing-secret=testIdentitySigningSecretAtLeast32Bytes"
+})
 class ApiGatewayApplicationTests {
 
 	@Test
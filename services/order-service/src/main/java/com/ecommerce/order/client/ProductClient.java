@@ -1,13 +1,32 @@
 package com.ecommerce.order.client;
 
+import com.ecommerce.common.exception.ServiceUnavailableException;
+import com.ecommerce.order.dto.OrderItemDto;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.decorators.Decorators;
+import io.github.resilience4j.timelimiter.TimeLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 @Component
 public class ProductClient {
@@ -15,18 +34,57 @@ public class ProductClient {
     @Autowired
     private RestTemplate restTemplate;
     
+    @Autowired
+    private Cache<Long, ProductInfo> productInfoCache;
+    
+    @Autowired
+    private CircuitBreaker productServiceCircuitBreaker;
+    
+    @Autowired
+    private Bulkhead productServiceBulkhead;
+    
+    @Autowired
+    private TimeLimiter productServiceTimeLimiter;
+    
+    @Autowired
+    @Qualifier("productClientExecutor")
+    private ExecutorService productClientExecutor;
+    
     private static final String PRODUCT_SERVICE_URL = "http://product-service:8082";
     private static final Logger LOGGER = LoggerFactory.getLogger(ProductClient.class);
     
+    // Bind response payloads straight to typed objects instead of LinkedHashMap trees
+    private static final ParameterizedTypeReference<ApiResponse<ProductInfo>> PRODUCT_INFO_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<ApiResponse<List<ProductInfo>>> PRODUCT_INFO_LIST_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<ApiResponse<Boolean>> BOOLEAN_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<ApiResponse<Void>> EMPTY_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    
+    /**
+     * Returns catalog info for a product, served from the near cache when possible.
+     * Cached entries carry no stock quantity; use {@link #checkProductAvailability} for stock.
+     */
     public ProductInfo getProductInfo(Long productId) {
+        return productInfoCache.get(productId, this::fetchProductInfo);
+    }
+    
+    private ProductInfo fetchProductInfo(Long productId) {
         String url = PRODUCT_SERVICE_URL + "/api/products/" + productId;
         try {
-            ApiResponse response = restTemplate.getForObject(url, ApiResponse.class);
+            ApiResponse<ProductInfo> response = callProductService(() -> restTemplate
+                .exchange(url, HttpMethod.GET, null, PRODUCT_INFO_RESPONSE)
+                .getBody());
             if (response == null || !response.isSuccess() || response.getData() == null) {
                 return null;
             }
-            return convertToProductInfo(response.getData());
-        } catch (Exception e) {
+            ProductInfo productInfo = response.getData();
+            productInfo.setStockQuantity(null);
+            productInfo.setAvailable(false);
+            return productInfo;
+        } catch (HttpClientErrorException e) {
             LOGGER.error("getProductInfo failed for productId {} via URL {}: {}", productId, url, e.toString());
             return null;
         }
@@ -35,27 +93,123 @@ public class ProductClient {
     public boolean checkProductAvailability(Long productId, Integer quantity) {
         String url = PRODUCT_SERVICE_URL + "/api/products/" + productId + "/availability?quantity=" + quantity;
         try {
-            ApiResponse response = restTemplate.getForObject(url, ApiResponse.class);
+            ApiResponse<Boolean> response = callProductService(() -> restTemplate
+                .exchange(url, HttpMethod.GET, null, BOOLEAN_RESPONSE)
+                .getBody());
+            return response != null && response.isSuccess() && Boolean.TRUE.equals(response.getData());
+        } catch (HttpClientErrorException e) {
+            LOGGER.error("checkProductAvailability failed for productId {} qty {} via URL {}: {}", productId, quantity, url, e.toString());
+            return false;
+        }
+    }
+    
+    /**
+     * Looks up info and availability for all items in one call to product-service.
+     * Returns null when product-service rejects the batch request (e.g. an older version without
+     * the endpoint) so callers can fall back to per-item lookups; products unknown to product-service
+     * are absent from the returned map.
+     */
+    public Map<Long, ProductInfo> getProductsAvailability(List<OrderItemDto> items) {
+        String url = PRODUCT_SERVICE_URL + "/api/products/batch";
+        try {
+            ApiResponse<List<ProductInfo>> response = callProductService(() -> restTemplate
+                .exchange(url, HttpMethod.POST, new HttpEntity<>(Map.of("items", items)), PRODUCT_INFO_LIST_RESPONSE)
+                .getBody());
             if (response == null || !response.isSuccess() || response.getData() == null) {
-                return false;
+                return null;
             }
-            Object data = response.getData();
-            if (data instanceof Boolean) {
-                return (Boolean) data;
+            Map<Long, ProductInfo> products = new HashMap<>();
+            for (ProductInfo productInfo : response.getData()) {
+                if (productInfo != null && productInfo.getId() != null) {
+                    products.put(productInfo.getId(), productInfo);
+                }
             }
-            return Boolean.parseBoolean(String.valueOf(data));
+            return products;
+        } catch (HttpClientErrorException e) {
+            LOGGER.error("getProductsAvailability failed for {} items via URL {}: {}", items.size(), url, e.toString());
+            return null;
+        }
+    }
+    
+    /**
+     * Atomically reserves stock for all items under the reservation ID. Returns false when any
+     * product lacks stock, in which case nothing is reserved. Retrying with the same ID is safe.
+     */
+    public boolean reserveStock(String reservationId, List<OrderItemDto> items) {
+        String url = PRODUCT_SERVICE_URL + "/api/products/stock/reserve";
+        try {
+            ApiResponse<Void> response = callProductService(() -> restTemplate
+                .exchange(url, HttpMethod.POST, new HttpEntity<>(stockRequest(reservationId, items)), EMPTY_RESPONSE)
+                .getBody());
+            return response != null && response.isSuccess();
+        } catch (HttpClientErrorException e) {
+            LOGGER.error("reserveStock failed for {} items via URL {}: {}", items.size(), url, e.toString());
+            return false;
+        }
+    }
+    
+    /**
+     * Releases the stock held by the reservation ID, at most once, even if the reserve never
+     * completed. A null ID releases the item quantities directly, for orders placed before
+     * reservation IDs existed.
+     */
+    public boolean releaseStock(String reservationId, List<OrderItemDto> items) {
+        String url = PRODUCT_SERVICE_URL + "/api/products/stock/release";
+        try {
+            ApiResponse<Void> response = callProductService(() -> restTemplate
+                .exchange(url, HttpMethod.POST, new HttpEntity<>(stockRequest(reservationId, items)), EMPTY_RESPONSE)
+                .getBody());
+            return response != null && response.isSuccess();
         } catch (Exception e) {
-            LOGGER.error("checkProductAvailability failed for productId {} qty {} via URL {}: {}", productId, quantity, url, e.toString());
+            LOGGER.error("releaseStock failed for {} items via URL {}: {}", items.size(), url, e.toString());
             return false;
         }
     }
     
+    private Map<String, Object> stockRequest(String reservationId, List<OrderItemDto> items) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("items", items);
+        if (reservationId != null) {
+            request.put("reservationId", reservationId);
+        }
+        return request;
+    }
+    
+    /**
+     * Runs a product-service call through the circuit breaker, bulkhead and time limiter.
+     * Client errors (4xx) pass through unchanged since they describe the request, not service health;
+     * anything else, including calls rejected by an open breaker or a full bulkhead, becomes a
+     * {@link ServiceUnavailableException} so callers never mistake an outage for an unavailable product.
+     */
+    private <T> T callProductService(Callable<T> call) {
+        Callable<T> timeLimitedCall = () -> productServiceTimeLimiter
+            .executeFutureSupplier(() -> productClientExecutor.submit(call));
+        try {
+            return Decorators.ofCallable(timeLimitedCall)
+                .withBulkhead(productServiceBulkhead)
+                .withCircuitBreaker(productServiceCircuitBreaker)
+                .call();
+        } catch (HttpClientErrorException e) {
+            throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new ServiceUnavailableException("Product service is temporarily unavailable");
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            LOGGER.error("Product service call failed: {}", e.toString());
+            throw new ServiceUnavailableException("Product service is temporarily unavailable");
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ProductInfo {
         private Long id;
         private String name;
         private BigDecimal price;
         private Integer stockQuantity;
         private boolean active;
+        private boolean available;
         
         public ProductInfo() {}
         
@@ -98,44 +252,21 @@ public class ProductClient {
         public void setActive(boolean active) {
             this.active = active;
         }
-    }
-    
-    private ProductInfo convertToProductInfo(Object data) {
-        if (!(data instanceof Map)) {
-            return null;
+        
+        public boolean isAvailable() {
+            return available;
+        }
+        
+        public void setAvailable(boolean available) {
+            this.available = available;
         }
-        Map<String, Object> dataMap = (Map<String, Object>) data;
-        ProductInfo productInfo = new ProductInfo();
-        Object idVal = dataMap.get("id");
-        if (idVal instanceof Number) {
-            productInfo.setId(((Number) idVal).longValue());
-        } else if (idVal != null) {
-            try { productInfo.setId(Long.parseLong(String.valueOf(idVal))); } catch (Exception ignored) {}
-        }
-        productInfo.setName((String) dataMap.get("name"));
-        Object priceVal = dataMap.get("price");
-        if (priceVal != null) {
-            productInfo.setPrice(new BigDecimal(String.valueOf(priceVal)));
-        }
-        Object stockVal = dataMap.get("stockQuantity");
-        if (stockVal instanceof Number) {
-            productInfo.setStockQuantity(((Number) stockVal).intValue());
-        } else if (stockVal != null) {
-            try { productInfo.setStockQuantity(Integer.parseInt(String.valueOf(stockVal))); } catch (Exception ignored) {}
-        }
-        Object activeVal = dataMap.get("active");
-        if (activeVal instanceof Boolean) {
-            productInfo.setActive((Boolean) activeVal);
-        } else if (activeVal != null) {
-            productInfo.setActive(Boolean.parseBoolean(String.valueOf(activeVal)));
-        }
-        return productInfo;
     }
     
-    public static class ApiResponse {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ApiResponse<T> {
         private boolean success;
         private String message;
-        private Object data;
+        private T data;
         private String timestamp;
         
         public ApiResponse() {}
@@ -156,11 +287,11 @@ public class ProductClient {
             this.message = message;
         }
         
-        public Object getData() {
+        public T getData() {
             return data;
         }
         
-        public void setData(Object data) {
+        public void setData(T data) {
             this.data = data;
         }
         
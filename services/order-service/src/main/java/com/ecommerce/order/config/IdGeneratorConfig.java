@@ -0,0 +1,28 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import com.ecommerce.order.entity.SnowflakeIdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+    
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdGeneratorConfig.class);
+    
+    /**
+     * Node ID comes from {@code id-generator.node-id}, which has no default: startup fails unless
+     * it is set. Each running instance needs a distinct value between 0 and
+     * {@link SnowflakeIdGenerator#MAX_NODE_ID}, or two instances can issue the same ID.
+     */
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${id-generator.node-id}") long nodeId) {
+        LOGGER.info("Using Snowflake node ID {}", nodeId);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        SnowflakeIdentifierGenerator.configure(generator);
+        return generator;
+    }
+}
\ No newline at end of file
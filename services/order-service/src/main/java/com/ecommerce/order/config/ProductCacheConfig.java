@@ -0,0 +1,37 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.client.ProductClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ProductCacheConfig {
+    
+    /**
+     * Near cache of catalog data (name, price, active flag) fetched from product-service.
+     * Entries never carry stock, which is always read live.
+     */
+    @Bean
+    public Cache<Long, ProductClient.ProductInfo> productInfoCache(
+            @Value("${order.product-cache.max-size:10000}") long maxSize,
+            @Value("${order.product-cache.ttl-seconds:60}") long ttlSeconds) {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+    
+    @Bean
+    public MeterBinder productInfoCacheMetrics(Cache<Long, ProductClient.ProductInfo> productInfoCache) {
+        return new CaffeineCacheMetrics<>(productInfoCache, "product-info", Tags.empty());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.ecommerce.order.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ProductClientResilienceConfig {
+    
+    public static final String PRODUCT_SERVICE = "product-service";
+    
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductClientResilienceConfig.class);
+    
+    @Bean
+    public CircuitBreaker productServiceCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(PRODUCT_SERVICE);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+            LOGGER.warn("Circuit breaker {} changed state: {}", event.getCircuitBreakerName(), event.getStateTransition()));
+        return circuitBreaker;
+    }
+    
+    @Bean
+    public Bulkhead productServiceBulkhead(BulkheadRegistry bulkheadRegistry) {
+        return bulkheadRegistry.bulkhead(PRODUCT_SERVICE);
+    }
+    
+    @Bean
+    public TimeLimiter productServiceTimeLimiter(TimeLimiterRegistry timeLimiterRegistry) {
+        return timeLimiterRegistry.timeLimiter(PRODUCT_SERVICE);
+    }
+    
+    /**
+     * Threads that run product-service calls under the time limiter. Sized to the bulkhead,
+     * which already caps how many calls can be in flight at once.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService productClientExecutor(Bulkhead productServiceBulkhead) {
+        int maxConcurrentCalls = productServiceBulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("product-client-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            maxConcurrentCalls,
+            maxConcurrentCalls,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            threadFactory
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.ecommerce.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ProductLookupConfig {
+    
+    /**
+     * Bounded pool for concurrent per-item product lookups. When the queue is full new lookups
+     * are rejected, and the order fails fast with 503 rather than tying up the request thread.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService productLookupExecutor(
+            @Value("${order.product-lookup.max-threads:16}") int maxThreads,
+            @Value("${order.product-lookup.queue-capacity:256}") int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("product-lookup-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            maxThreads,
+            maxThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
\ No newline at end of file
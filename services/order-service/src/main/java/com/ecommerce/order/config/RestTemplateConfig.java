@@ -1,16 +1,87 @@
 package com.ecommerce.order.config;
 
+import com.ecommerce.common.security.IdentityHeaders;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
     
+    /**
+     * Keep-alive connection pool shared by all outbound calls. The load balancer rewrites
+     * service URLs to concrete instances before the request executes, so each instance gets its own route pool.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(
+            @Value("${order.http-client.max-connections-total:200}") int maxConnectionsTotal,
+            @Value("${order.http-client.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${order.http-client.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${order.http-client.read-timeout-ms:3000}") long readTimeoutMs,
+            @Value("${order.http-client.validate-after-inactivity-ms:2000}") long validateAfterInactivityMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnectionsTotal)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                .build())
+            .build();
+    }
+    
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager httpClientConnectionManager,
+            @Value("${order.http-client.read-timeout-ms:3000}") long readTimeoutMs,
+            @Value("${order.http-client.pool-acquire-timeout-ms:500}") long poolAcquireTimeoutMs,
+            @Value("${order.http-client.idle-eviction-seconds:30}") long idleEvictionSeconds) {
+        return HttpClients.custom()
+            .setConnectionManager(httpClientConnectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build())
+            .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+            .build();
+    }
+    
+    @Bean
+    public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(httpClientConnectionManager, "order-service");
+    }
+    
+    /**
+     * Outbound calls are signed as this service, so product-service can tell them apart from
+     * user traffic and allow stock reservation.
+     */
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            CloseableHttpClient httpClient,
+            IdentityHeaders identityHeaders,
+            @Value("${spring.application.name}") String serviceName) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            identityHeaders.apply(request.getHeaders(), serviceName, IdentityHeaders.ROLE_SERVICE);
+            return execution.execute(request, body);
+        });
+        return restTemplate;
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.common.security.IdentityHeaders;
+import com.ecommerce.common.security.IdentityHeadersAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+/**
+ * Callers are identified by the identity headers signed by the api-gateway. Every order
+ * endpoint requires an authenticated caller; ownership is checked per endpoint.
+ */
+@Configuration
+@EnableWebSecurity
+@EnableMethodSecurity(prePostEnabled = true)
+public class SecurityConfig {
+    
+    @Bean
+    public IdentityHeaders identityHeaders(@Value("${identity.signing-secret}") String signingSecret) {
+        return new IdentityHeaders(signingSecret);
+    }
+    
+    @Bean
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            IdentityHeaders identityHeaders,
+            @Value("${identity.max-skew-seconds:30}") long maxSkewSeconds) throws Exception {
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers("/actuator/**").permitAll()
+                .anyRequest().authenticated()
+            )
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .exceptionHandling(ex -> ex
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            )
+            .addFilterBefore(new IdentityHeadersAuthenticationFilter(identityHeaders, maxSkewSeconds),
+                UsernamePasswordAuthenticationFilter.class);
+        
+        return http.build();
+    }
+}
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.ecommerce.order.controller;
 
 import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.dto.CursorPage;
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderResponseDto;
 import com.ecommerce.order.entity.OrderStatus;
+import com.ecommerce.order.service.IdempotentOrderService;
 import com.ecommerce.order.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +13,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,28 +32,50 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private IdempotentOrderService idempotentOrderService;
+    
     @PostMapping
+    @PreAuthorize("@orderAccess.canAccessUser(#orderDto.userId)")
     public ResponseEntity<ApiResponse<OrderResponseDto>> createOrder(
-            @Valid @RequestBody OrderDto orderDto) {
-        OrderResponseDto order = orderService.createOrder(orderDto);
+            @Valid @RequestBody OrderDto orderDto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderResponseDto order = idempotencyKey != null
+            ? idempotentOrderService.createOrder(orderDto, idempotencyKey)
+            : orderService.createOrder(orderDto);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Order created successfully", order));
     }
     
     @GetMapping("/{id}")
+    @PreAuthorize("@orderAccess.canAccessOrder(#id)")
     public ResponseEntity<ApiResponse<OrderResponseDto>> getOrderById(@PathVariable Long id) {
         OrderResponseDto order = orderService.getOrderById(id);
         return ResponseEntity.ok(ApiResponse.success("Order retrieved successfully", order));
     }
     
     @GetMapping
+    @PreAuthorize("@orderAccess.isAdmin()")
     public ResponseEntity<ApiResponse<List<OrderResponseDto>>> getAllOrders() {
         List<OrderResponseDto> orders = orderService.getAllOrders();
         return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
     }
     
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("@orderAccess.isAdmin()")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(status, startDate, endDate, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
     @GetMapping("/user/{userId}")
+    @PreAuthorize("@orderAccess.canAccessUser(#userId)")
     public ResponseEntity<ApiResponse<Page<OrderResponseDto>>> getOrdersByUserId(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
@@ -62,7 +91,18 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
     }
     
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    @PreAuthorize("@orderAccess.canAccessUser(#userId)")
+    public ResponseEntity<ApiResponse<CursorPage<OrderResponseDto>>> getOrdersByUserIdAfterCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPage<OrderResponseDto> orders = orderService.getOrdersByUserId(userId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
+    }
+    
     @GetMapping("/status/{status}")
+    @PreAuthorize("@orderAccess.isAdmin()")
     public ResponseEntity<ApiResponse<List<OrderResponseDto>>> getOrdersByStatus(
             @PathVariable OrderStatus status) {
         List<OrderResponseDto> orders = orderService.getOrdersByStatus(status);
@@ -70,6 +110,7 @@ public class OrderController {
     }
     
     @PatchMapping("/{id}/status")
+    @PreAuthorize("@orderAccess.isAdmin()")
     public ResponseEntity<ApiResponse<OrderResponseDto>> updateOrderStatus(
             @PathVariable Long id,
             @RequestParam OrderStatus status) {
@@ -78,6 +119,7 @@ public class OrderController {
     }
     
     @PutMapping("/{id}/status")
+    @PreAuthorize("@orderAccess.isAdmin()")
     public ResponseEntity<ApiResponse<OrderResponseDto>> updateOrderStatusPut(
             @PathVariable Long id,
             @RequestParam OrderStatus status) {
@@ -86,6 +128,7 @@ public class OrderController {
     }
     
     @PatchMapping("/{id}/cancel")
+    @PreAuthorize("@orderAccess.canAccessOrder(#id)")
     public ResponseEntity<ApiResponse<String>> cancelOrder(@PathVariable Long id) {
         orderService.cancelOrder(id);
         return ResponseEntity.ok(ApiResponse.success("Order cancelled successfully"));
@@ -1,9 +1,13 @@
 package com.ecommerce.order.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
 import java.math.BigDecimal;
 
 public class OrderItemResponseDto {
     
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     private Long productId;
     private String productName;
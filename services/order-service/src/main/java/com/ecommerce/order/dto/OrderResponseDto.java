@@ -2,6 +2,8 @@ package com.ecommerce.order.dto;
 
 import com.ecommerce.order.entity.OrderStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -9,6 +11,8 @@ import java.util.List;
 
 public class OrderResponseDto {
     
+    // Snowflake IDs exceed 2^53, beyond what JavaScript numbers represent exactly
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     private Long userId;
     private BigDecimal totalAmount;
@@ -2,17 +2,20 @@ package com.ecommerce.order.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_orders_user_idempotency_key", columnNames = {"user_id", "idempotency_key"})
+})
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
     @NotNull(message = "User ID is required")
@@ -33,6 +36,15 @@ public class Order {
     @Column(name = "billing_address", columnDefinition = "TEXT")
     private String billingAddress;
     
+    @Column(name = "idempotency_key", updatable = false)
+    private String idempotencyKey;
+    
+    @Column(name = "idempotency_request_hash", length = 64, updatable = false)
+    private String idempotencyRequestHash;
+    
+    @Column(name = "stock_reservation_id", length = 64, updatable = false)
+    private String stockReservationId;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -40,6 +52,7 @@ public class Order {
     private LocalDateTime updatedAt;
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<OrderItem> orderItems;
     
     public Order() {}
@@ -110,6 +123,30 @@ public class Order {
         this.billingAddress = billingAddress;
     }
     
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getIdempotencyRequestHash() {
+        return idempotencyRequestHash;
+    }
+    
+    public void setIdempotencyRequestHash(String idempotencyRequestHash) {
+        this.idempotencyRequestHash = idempotencyRequestHash;
+    }
+    
+    public String getStockReservationId() {
+        return stockReservationId;
+    }
+    
+    public void setStockReservationId(String stockReservationId) {
+        this.stockReservationId = stockReservationId;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
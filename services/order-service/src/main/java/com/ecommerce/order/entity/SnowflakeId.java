@@ -0,0 +1,18 @@
+package com.ecommerce.order.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a Snowflake ID in memory at persist time. Unlike IDENTITY columns, this keeps
+ * Hibernate's JDBC insert batching enabled for the annotated entity.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
\ No newline at end of file
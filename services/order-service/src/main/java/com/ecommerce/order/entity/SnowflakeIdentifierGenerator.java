@@ -0,0 +1,36 @@
+package com.ecommerce.order.entity;
+
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate instantiates generators itself, so the Spring-configured {@link SnowflakeIdGenerator}
+ * is handed over through {@link #configure} during startup.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+    
+    private static volatile SnowflakeIdGenerator idGenerator;
+    
+    public static void configure(SnowflakeIdGenerator generator) {
+        idGenerator = generator;
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        SnowflakeIdGenerator generator = idGenerator;
+        if (generator == null) {
+            throw new IllegalStateException("Snowflake ID generator has not been configured");
+        }
+        return generator.nextId();
+    }
+    
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
\ No newline at end of file
@@ -2,29 +2,95 @@ package com.ecommerce.order.repository;
 
 import com.ecommerce.order.entity.Order;
 import com.ecommerce.order.entity.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    int EXPORT_FETCH_SIZE = 500;
+    
+    @Override
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findAll();
+    
+    @EntityGraph(attributePaths = "orderItems")
     List<Order> findByUserId(Long userId);
     
     Page<Order> findByUserId(Long userId, Pageable pageable);
     
+    /**
+     * First phase of paged loading: pages over order IDs only, so the item fetch join in
+     * {@link #findWithItemsByIdIn} never forces Hibernate to paginate in memory.
+     */
+    @Query(value = "SELECT o.id FROM Order o WHERE o.userId = :userId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.userId = :userId")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+    
+    @Query(value = "SELECT o.id FROM orders o WHERE o.user_id = :userId " +
+                   "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findFirstIdsByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+    
+    @Query(value = "SELECT o.id FROM orders o WHERE o.user_id = :userId " +
+                   "AND (o.created_at, o.id) < (:createdAt, :id) " +
+                   "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findIdsByUserIdBefore(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     @Param("limit") int limit);
+    
+    @EntityGraph(attributePaths = "orderItems")
     List<Order> findByStatus(OrderStatus status);
     
+    @Query("SELECT o.userId FROM Order o WHERE o.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+    
+    Optional<Order> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+    
     @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.status = :status")
     List<Order> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") OrderStatus status);
     
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
     List<Order> findOrdersCreatedBetween(@Param("startDate") LocalDateTime startDate, 
                                        @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Forward-only cursor over the same range as {@link #findOrdersCreatedBetween}, fetched
+     * {@value #EXPORT_FETCH_SIZE} rows at a time. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.id")
+    Stream<Order> streamOrdersCreatedBetween(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.id")
+    Stream<Order> streamOrdersByStatusCreatedBetween(@Param("status") OrderStatus status,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.ecommerce.order.security;
+
+import com.ecommerce.common.security.ForwardedIdentity;
+import com.ecommerce.order.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+@Component("orderAccess")
+public class OrderAccessEvaluator {
+    
+    private static final String ROLE_ADMIN = "ADMIN";
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    /**
+     * Checks if the current user can access orders of the specified user.
+     * Users can only access their own orders; ADMIN users can access any user's orders.
+     */
+    public boolean canAccessUser(Long targetUserId) {
+        ForwardedIdentity caller = currentIdentity();
+        if (caller == null) {
+            return false;
+        }
+        return caller.hasRole(ROLE_ADMIN) || (targetUserId != null && targetUserId.equals(caller.getUserIdAsLong()));
+    }
+    
+    /**
+     * Checks if the current user owns the order or is an admin. Unknown orders are let through
+     * so the lookup reports them as not found.
+     */
+    public boolean canAccessOrder(Long orderId) {
+        ForwardedIdentity caller = currentIdentity();
+        if (caller == null) {
+            return false;
+        }
+        if (caller.hasRole(ROLE_ADMIN)) {
+            return true;
+        }
+        return orderRepository.findUserIdById(orderId)
+            .map(ownerId -> ownerId.equals(caller.getUserIdAsLong()))
+            .orElse(true);
+    }
+    
+    public boolean isAdmin() {
+        ForwardedIdentity caller = currentIdentity();
+        return caller != null && caller.hasRole(ROLE_ADMIN);
+    }
+    
+    private ForwardedIdentity currentIdentity() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getPrincipal() instanceof ForwardedIdentity identity ? identity : null;
+    }
+}
\ No newline at end of file
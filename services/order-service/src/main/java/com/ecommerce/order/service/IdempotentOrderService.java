@@ -0,0 +1,133 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ConflictException;
+import com.ecommerce.common.exception.UnprocessableEntityException;
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.OrderResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates orders at most once per (userId, Idempotency-Key).
+ * Retries of a completed request replay the stored order; concurrent duplicates on this instance
+ * wait for the in-flight attempt, and duplicates racing on other instances are settled by the
+ * unique constraint on the orders table. A key reused with a different request body is rejected
+ * with 422 rather than replaying the unrelated order.
+ */
+@Service
+public class IdempotentOrderService {
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${order.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+    
+    private final ConcurrentMap<String, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+    
+    public OrderResponseDto createOrder(OrderDto orderDto, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String requestHash = requestHash(orderDto);
+        Optional<OrderResponseDto> existing =
+            orderService.getOrderByIdempotencyKey(orderDto.getUserId(), idempotencyKey, requestHash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        
+        String inFlightKey = orderDto.getUserId() + ":" + idempotencyKey;
+        InFlightRequest attempt = new InFlightRequest(requestHash);
+        InFlightRequest leader = inFlight.putIfAbsent(inFlightKey, attempt);
+        if (leader != null) {
+            if (!leader.requestHash.equals(requestHash)) {
+                throw new UnprocessableEntityException("Idempotency-Key was already used with a different request");
+            }
+            return awaitInFlight(leader.result);
+        }
+        
+        try {
+            OrderResponseDto order = createOrRecover(orderDto, idempotencyKey, requestHash);
+            attempt.result.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            attempt.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(inFlightKey, attempt);
+        }
+    }
+    
+    private OrderResponseDto createOrRecover(OrderDto orderDto, String idempotencyKey, String requestHash) {
+        try {
+            return orderService.createOrder(orderDto, idempotencyKey, requestHash);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed an order with the same key first
+            return orderService.getOrderByIdempotencyKey(orderDto.getUserId(), idempotencyKey, requestHash)
+                .orElseThrow(() -> e);
+        }
+    }
+    
+    /**
+     * SHA-256 of the request body as serialized by Jackson, so field order and formatting
+     * of the client's JSON do not matter.
+     */
+    private String requestHash(OrderDto orderDto) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderDto));
+            return HexFormat.of().formatHex(hash);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize order request", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private OrderResponseDto awaitInFlight(CompletableFuture<OrderResponseDto> leader) {
+        try {
+            return leader.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for a request with the same Idempotency-Key");
+        }
+    }
+    
+    private static final class InFlightRequest {
+        
+        private final String requestHash;
+        private final CompletableFuture<OrderResponseDto> result = new CompletableFuture<>();
+        
+        private InFlightRequest(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
\ No newline at end of file
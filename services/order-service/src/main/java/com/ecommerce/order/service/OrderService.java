@@ -1,7 +1,11 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.common.dto.CursorPage;
+import com.ecommerce.common.dto.KeysetCursor;
 import com.ecommerce.common.exception.BadRequestException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
+import com.ecommerce.common.exception.ServiceUnavailableException;
+import com.ecommerce.common.exception.UnprocessableEntityException;
 import com.ecommerce.order.client.ProductClient;
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderItemDto;
@@ -11,28 +15,77 @@ import com.ecommerce.order.entity.Order;
 import com.ecommerce.order.entity.OrderItem;
 import com.ecommerce.order.entity.OrderStatus;
 import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class OrderService {
     
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderService.class);
+    private static final LocalDateTime EXPORT_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
     @Autowired
     private OrderRepository orderRepository;
     
     @Autowired
     private ProductClient productClient;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    @Qualifier("productLookupExecutor")
+    private ExecutorService productLookupExecutor;
+    
+    @Value("${order.product-lookup.concurrent:true}")
+    private boolean concurrentProductLookup;
+    
+    @Value("${order.product-lookup.timeout-ms:3000}")
+    private long productLookupTimeoutMs;
+    
     public OrderResponseDto createOrder(OrderDto orderDto) {
+        return createOrder(orderDto, null, null);
+    }
+    
+    public OrderResponseDto createOrder(OrderDto orderDto, String idempotencyKey, String requestHash) {
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
         
@@ -43,16 +96,12 @@ public class OrderService {
             orderDto.getBillingAddress() != null ? orderDto.getBillingAddress() : orderDto.getShippingAddress()
         );
         
-        for (OrderItemDto itemDto : orderDto.getOrderItems()) {
-            ProductClient.ProductInfo productInfo = productClient.getProductInfo(itemDto.getProductId());
-            
-            if (productInfo == null || !productInfo.isActive()) {
-                throw new BadRequestException("Product with ID " + itemDto.getProductId() + " is not available");
-            }
-            
-            if (!productClient.checkProductAvailability(itemDto.getProductId(), itemDto.getQuantity())) {
-                throw new BadRequestException("Insufficient stock for product: " + productInfo.getName());
-            }
+        List<OrderItemDto> itemDtos = orderDto.getOrderItems();
+        List<ProductClient.ProductInfo> productInfos = resolveProducts(itemDtos);
+        
+        for (int i = 0; i < itemDtos.size(); i++) {
+            OrderItemDto itemDto = itemDtos.get(i);
+            ProductClient.ProductInfo productInfo = productInfos.get(i);
             
             OrderItem orderItem = new OrderItem(
                 productInfo.getId(),
@@ -68,17 +117,132 @@ public class OrderService {
         
         order.setTotalAmount(totalAmount);
         order.setOrderItems(orderItems);
+        order.setIdempotencyKey(idempotencyKey);
+        order.setIdempotencyRequestHash(requestHash);
+        
+        // Registered before the call: if the reserve times out after product-service committed it,
+        // the rollback still releases it, and a release that overtakes the reserve makes it fail
+        String reservationId = UUID.randomUUID().toString();
+        order.setStockReservationId(reservationId);
+        releaseStockOnRollback(reservationId, orderDto.getOrderItems());
+        if (!productClient.reserveStock(reservationId, orderDto.getOrderItems())) {
+            throw new BadRequestException("Insufficient stock for one or more products");
+        }
         
         Order savedOrder = orderRepository.save(order);
         return convertToResponseDto(savedOrder);
     }
     
+    private List<ProductClient.ProductInfo> resolveProducts(List<OrderItemDto> itemDtos) {
+        Map<Long, ProductClient.ProductInfo> products = productClient.getProductsAvailability(itemDtos);
+        if (products != null) {
+            return itemDtos.stream()
+                .map(itemDto -> resolveBatchedProduct(products, itemDto))
+                .collect(Collectors.toList());
+        }
+        
+        if (concurrentProductLookup && itemDtos.size() > 1) {
+            return resolveProductsConcurrently(itemDtos);
+        }
+        return itemDtos.stream()
+            .map(this::resolveProduct)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Runs the per-item lookups in parallel so latency tracks the slowest item rather than the sum.
+     * The first unavailable item or an expired deadline cancels the lookups still in flight.
+     */
+    private List<ProductClient.ProductInfo> resolveProductsConcurrently(List<OrderItemDto> itemDtos) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(productLookupTimeoutMs);
+        CompletionService<ProductClient.ProductInfo> completionService =
+            new ExecutorCompletionService<>(productLookupExecutor);
+        List<Future<ProductClient.ProductInfo>> futures = new ArrayList<>(itemDtos.size());
+        
+        try {
+            for (OrderItemDto itemDto : itemDtos) {
+                futures.add(completionService.submit(() -> resolveProduct(itemDto)));
+            }
+            
+            for (int i = 0; i < itemDtos.size(); i++) {
+                Future<ProductClient.ProductInfo> completed =
+                    completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    throw new ServiceUnavailableException("Timed out checking product availability");
+                }
+                completed.get();
+            }
+            
+            List<ProductClient.ProductInfo> productInfos = new ArrayList<>(futures.size());
+            for (Future<ProductClient.ProductInfo> future : futures) {
+                productInfos.add(future.get());
+            }
+            return productInfos;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many concurrent product availability checks");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while checking product availability");
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private ProductClient.ProductInfo resolveBatchedProduct(Map<Long, ProductClient.ProductInfo> products, OrderItemDto itemDto) {
+        ProductClient.ProductInfo productInfo = products.get(itemDto.getProductId());
+        
+        if (productInfo == null || !productInfo.isActive()) {
+            throw new BadRequestException("Product with ID " + itemDto.getProductId() + " is not available");
+        }
+        
+        if (!productInfo.isAvailable()) {
+            throw new BadRequestException("Insufficient stock for product: " + productInfo.getName());
+        }
+        
+        return productInfo;
+    }
+    
+    private ProductClient.ProductInfo resolveProduct(OrderItemDto itemDto) {
+        ProductClient.ProductInfo productInfo = productClient.getProductInfo(itemDto.getProductId());
+        
+        if (productInfo == null || !productInfo.isActive()) {
+            throw new BadRequestException("Product with ID " + itemDto.getProductId() + " is not available");
+        }
+        
+        if (!productClient.checkProductAvailability(itemDto.getProductId(), itemDto.getQuantity())) {
+            throw new BadRequestException("Insufficient stock for product: " + productInfo.getName());
+        }
+        
+        return productInfo;
+    }
+    
     public OrderResponseDto getOrderById(Long id) {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
         return convertToResponseDto(order);
     }
     
+    /**
+     * Finds the order created with the key, rejecting keys first used with a different request.
+     * Orders stored before request hashes were recorded match any request.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderResponseDto> getOrderByIdempotencyKey(Long userId, String idempotencyKey, String requestHash) {
+        return orderRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+            .map(order -> {
+                String storedHash = order.getIdempotencyRequestHash();
+                if (storedHash != null && !storedHash.equals(requestHash)) {
+                    throw new UnprocessableEntityException("Idempotency-Key was already used with a different request");
+                }
+                return convertToResponseDto(order);
+            });
+    }
+    
     public List<OrderResponseDto> getOrdersByUserId(Long userId) {
         return orderRepository.findByUserId(userId).stream()
             .map(this::convertToResponseDto)
@@ -86,8 +250,48 @@ public class OrderService {
     }
     
     public Page<OrderResponseDto> getOrdersByUserId(Long userId, Pageable pageable) {
-        return orderRepository.findByUserId(userId, pageable)
-            .map(this::convertToResponseDto);
+        Page<Long> orderIds = orderRepository.findIdsByUserId(userId, pageable);
+        if (orderIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        Map<Long, Order> orders = orderRepository.findWithItemsByIdIn(orderIds.getContent()).stream()
+            .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return orderIds.map(id -> convertToResponseDto(orders.get(id)));
+    }
+    
+    /**
+     * Keyset-paginated order history, newest first. Pass a null or blank cursor for the first page
+     * and the returned nextCursor for each following page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponseDto> getOrdersByUserId(Long userId, String cursor, int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        
+        List<Long> orderIds;
+        if (cursor == null || cursor.isBlank()) {
+            orderIds = orderRepository.findFirstIdsByUserId(userId, size + 1);
+        } else {
+            KeysetCursor keyset = KeysetCursor.decode(cursor);
+            orderIds = orderRepository.findIdsByUserIdBefore(userId, keyset.getCreatedAt(), keyset.getId(), size + 1);
+        }
+        
+        boolean hasNext = orderIds.size() > size;
+        List<Long> pageIds = hasNext ? orderIds.subList(0, size) : orderIds;
+        Map<Long, Order> orders = orderRepository.findWithItemsByIdIn(pageIds).stream()
+            .collect(Collectors.toMap(Order::getId, Function.identity()));
+        
+        List<OrderResponseDto> content = pageIds.stream()
+            .map(id -> convertToResponseDto(orders.get(id)))
+            .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = orders.get(pageIds.get(pageIds.size() - 1));
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, size, nextCursor);
     }
     
     public List<OrderResponseDto> getAllOrders() {
@@ -96,6 +300,47 @@ public class OrderService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Writes matching orders as newline-delimited JSON while reading them through a database cursor.
+     * Orders are converted one fetch-sized chunk at a time, so {@code @BatchSize} on the items collection
+     * loads items for many orders per query, and the persistence context is cleared after every chunk
+     * to keep memory flat regardless of table size.
+     * <p>
+     * The transaction is bounded by {@code order.export.timeout-seconds}: each chunk's item queries
+     * check the deadline, so a slow consumer fails the export instead of holding the cursor open.
+     */
+    @Transactional(readOnly = true, timeoutString = "${order.export.timeout-seconds:600}")
+    public void exportOrders(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate,
+                             OutputStream outputStream) throws IOException {
+        LocalDateTime from = startDate != null ? startDate : EXPORT_EPOCH;
+        LocalDateTime to = endDate != null ? endDate : LocalDateTime.now();
+        ObjectWriter writer = objectMapper.writerFor(OrderResponseDto.class);
+        
+        try (Stream<Order> orders = status != null
+                ? orderRepository.streamOrdersByStatusCreatedBetween(status, from, to)
+                : orderRepository.streamOrdersCreatedBetween(from, to)) {
+            List<Order> chunk = new ArrayList<>(OrderRepository.EXPORT_FETCH_SIZE);
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == OrderRepository.EXPORT_FETCH_SIZE) {
+                    writeNdjson(chunk, writer, outputStream);
+                }
+            }
+            writeNdjson(chunk, writer, outputStream);
+        }
+        outputStream.flush();
+    }
+    
+    private void writeNdjson(List<Order> chunk, ObjectWriter writer, OutputStream outputStream) throws IOException {
+        for (Order order : chunk) {
+            outputStream.write(writer.writeValueAsBytes(convertToResponseDto(order)));
+            outputStream.write('\n');
+        }
+        chunk.clear();
+        entityManager.clear();
+    }
+    
     public OrderResponseDto updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
@@ -115,6 +360,7 @@ public class OrderService {
         
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        releaseStockOnCommit(order.getStockReservationId(), toItemDtos(order.getOrderItems()));
     }
     
     public List<OrderResponseDto> getOrdersByStatus(OrderStatus status) {
@@ -123,6 +369,34 @@ public class OrderService {
             .collect(Collectors.toList());
     }
     
+    private void releaseStockOnRollback(String reservationId, List<OrderItemDto> items) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && !productClient.releaseStock(reservationId, items)) {
+                    LOGGER.error("Failed to release stock reserved for a rolled back order: {} items", items.size());
+                }
+            }
+        });
+    }
+    
+    private void releaseStockOnCommit(String reservationId, List<OrderItemDto> items) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!productClient.releaseStock(reservationId, items)) {
+                    LOGGER.error("Failed to release stock for a cancelled order: {} items", items.size());
+                }
+            }
+        });
+    }
+    
+    private List<OrderItemDto> toItemDtos(List<OrderItem> orderItems) {
+        return orderItems.stream()
+            .map(item -> new OrderItemDto(item.getProductId(), item.getQuantity()))
+            .collect(Collectors.toList());
+    }
+    
     private OrderResponseDto convertToResponseDto(Order order) {
         OrderResponseDto dto = new OrderResponseDto();
         dto.setId(order.getId());
@@ -0,0 +1,19 @@
+-- Indexes matched to the query shapes in OrderRepository and OrderItemRepository
+
+-- Idempotency-Key lookups and duplicate detection
+CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_user_idempotency_key ON orders (user_id, idempotency_key);
+
+-- Order history by user, newest first (offset and keyset pagination)
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_at ON orders (user_id, created_at DESC, id DESC);
+
+-- Orders by status, optionally within a date range
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at ON orders (status, created_at);
+
+-- Orders created within a date range (reports and NDJSON export)
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
+
+-- Loading items for a page of orders
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
+
+-- Items referencing a product
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items (product_id);
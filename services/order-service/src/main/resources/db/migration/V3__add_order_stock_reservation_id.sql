@@ -0,0 +1,4 @@
+-- Reservation ID the order's stock was reserved under in product-service, used to release it
+-- exactly once on rollback or cancellation. NULL for orders placed before reservation IDs.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS stock_reservation_id VARCHAR(64);
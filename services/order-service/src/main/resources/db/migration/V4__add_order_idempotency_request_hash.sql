@@ -0,0 +1,4 @@
+-- SHA-256 of the request body an Idempotency-Key was first used with, so a reused key with a
+-- different body is rejected instead of replaying an unrelated order. NULL for older orders.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS idempotency_request_hash VARCHAR(64);
@@ -0,0 +1,90 @@
+package com.ecommerce.order.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies the Flyway migrations to a real PostgreSQL and checks the result: Hibernate validates
+ * the entity mappings against the migrated schema, and the planner serves the order history and
+ * idempotency lookups from the indexes the migrations create. Skipped when Docker is unavailable,
+ * except in the ci profile, where that fails the build.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.cloud.config.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@DisabledIf("dockerUnavailableOutsideCi")
+class OrderMigrationTest {
+
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void migrationsAreRecordedInTheServiceHistoryTable() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+		Integer failed = jdbc.queryForObject(
+				"SELECT COUNT(*) FROM flyway_schema_history_order WHERE NOT success", Integer.class);
+		Integer applied = jdbc.queryForObject(
+				"SELECT COUNT(*) FROM flyway_schema_history_order WHERE success", Integer.class);
+
+		assertEquals(0, failed);
+		assertTrue(applied > 0);
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"SELECT id FROM orders WHERE user_id = 1 ORDER BY created_at DESC, id DESC LIMIT 10 | idx_orders_user_created_at",
+			"SELECT id FROM orders WHERE user_id = 1 AND idempotency_key = 'k' | uk_orders_user_idempotency_key",
+			"SELECT id FROM orders WHERE status = 'PENDING' AND created_at > now() - interval '1 day' | idx_orders_status_created_at",
+			"SELECT id FROM orders WHERE created_at BETWEEN now() - interval '1 day' AND now() | idx_orders_created_at",
+			"SELECT id FROM order_items WHERE order_id = 1 | idx_order_items_order_id"
+	})
+	void queryIsServedByIndex(String query, String index) {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		// The tables are empty, so rule out sequential scans to see which index the planner would pick
+		jdbc.execute("SET LOCAL enable_seqscan = off");
+
+		List<String> plan = jdbc.queryForList("EXPLAIN " + query, String.class);
+
+		assertTrue(plan.stream().anyMatch(line -> line.contains(index)), () -> String.join("\n", plan));
+	}
+
+	static boolean dockerUnavailableOutsideCi() {
+		return !Boolean.getBoolean("tests.require-docker") && !DockerClientFactory.instance().isDockerAvailable();
+	}
+
+	/**
+	 * Stands in for OrderServiceApplication, whose explicit component scan would pull the whole
+	 * application into this slice.
+	 */
+	@SpringBootConfiguration
+	@AutoConfigurationPackage(basePackages = "com.ecommerce.order")
+	static class TestConfig {
+	}
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.common.dto.CursorPage;
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import com.ecommerce.order.client.ProductClient;
+import com.ecommerce.order.dto.OrderResponseDto;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderItem;
+import com.ecommerce.order.entity.SnowflakeIdentifierGenerator;
+import com.ecommerce.order.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements order history pages issue, so an N+1 regression (one item query per
+ * order) fails the build. Runs on H2 with Hibernate statistics; the schema comes from the entities.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.cloud.config.enabled=false"
+})
+@Import(OrderService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class OrderHistoryStatementCountTest {
+
+	private static final long USER_ID = 42L;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@MockitoBean
+	private ProductClient productClient;
+
+	@MockitoBean(name = "productLookupExecutor")
+	private ExecutorService productLookupExecutor;
+
+	private Statistics statistics;
+
+	private long lastStatementCount;
+
+	@BeforeAll
+	static void configureIdGenerator() {
+		SnowflakeIdentifierGenerator.configure(new SnowflakeIdGenerator(1));
+	}
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void offsetPageLoadsAllItemsInTwoStatements() {
+		saveOrders(5, 3);
+
+		Page<OrderResponseDto> page = countStatements(() -> orderService.getOrdersByUserId(
+				USER_ID, PageRequest.of(0, 10, Sort.by("createdAt").descending())));
+
+		assertEquals(5, page.getNumberOfElements());
+		page.forEach(order -> assertEquals(3, order.getOrderItems().size()));
+		// One query for the page of IDs, one fetch join for the orders and their items
+		assertEquals(2, lastStatementCount);
+	}
+
+	@Test
+	void offsetPageStatementCountDoesNotGrowWithOrders() {
+		saveOrders(20, 2);
+
+		Page<OrderResponseDto> page = countStatements(() -> orderService.getOrdersByUserId(
+				USER_ID, PageRequest.of(0, 10, Sort.by("createdAt").descending())));
+
+		assertEquals(10, page.getNumberOfElements());
+		assertEquals(20, page.getTotalElements());
+		// IDs, total count, and one fetch join regardless of page size
+		assertEquals(3, lastStatementCount);
+	}
+
+	@Test
+	void emptyOffsetPageIssuesOneStatement() {
+		PageRequest pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+
+		Page<OrderResponseDto> page = countStatements(() -> orderService.getOrdersByUserId(USER_ID, pageable));
+
+		assertTrue(page.isEmpty());
+		assertEquals(pageable, page.getPageable());
+		assertEquals(1, lastStatementCount);
+	}
+
+	@Test
+	void cursorPageLoadsAllItemsInTwoStatements() {
+		saveOrders(5, 3);
+
+		CursorPage<OrderResponseDto> page = countStatements(() -> orderService.getOrdersByUserId(USER_ID, null, 10));
+
+		assertEquals(5, page.getContent().size());
+		page.getContent().forEach(order -> assertEquals(3, order.getOrderItems().size()));
+		assertEquals(2, lastStatementCount);
+	}
+
+	private <T> T countStatements(Supplier<T> call) {
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+		T result = call.get();
+		lastStatementCount = statistics.getPrepareStatementCount();
+		return result;
+	}
+
+	private void saveOrders(int orders, int itemsPerOrder) {
+		for (int i = 0; i < orders; i++) {
+			Order order = new Order(USER_ID, BigDecimal.TEN, "1 Main St", "1 Main St");
+			List<OrderItem> items = new ArrayList<>();
+			for (int j = 0; j < itemsPerOrder; j++) {
+				items.add(new OrderItem((long) j + 1, "Product " + j, 1, BigDecimal.ONE, order));
+			}
+			order.setOrderItems(items);
+			orderRepository.save(order);
+		}
+	}
+
+	/**
+	 * Stands in for OrderServiceApplication, whose explicit component scan would pull the whole
+	 * application into this slice.
+	 */
+	@SpringBootConfiguration
+	@AutoConfigurationPackage(basePackages = "com.ecommerce.order")
+	static class TestConfig {
+	}
+}
@@ -2,10 +2,14 @@ package com.ecommerce.product;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Callers authenticate with signed identity headers; there are no local users
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
 @ComponentScan(basePackages = {"com.ecommerce.product", "com.ecommerce.common"})
+@EnableScheduling
 public class ProductServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,42 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.dto.ProductResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ProductCacheConfig {
+    
+    /**
+     * Read-through cache of product responses by ID, without the stock quantity, which is always
+     * read from the database. Entries are evicted once a change to the product commits, but only
+     * on the instance that made it, so the short TTL bounds how long other instances serve the
+     * old details.
+     */
+    @Bean
+    public Cache<Long, ProductResponseDto> productCache(
+            @Value("${product.cache.max-size:10000}") long maxSize,
+            @Value("${product.cache.ttl-seconds:30}") long ttlSeconds) {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+    
+    /**
+     * Exports hits, misses, evictions and load durations as cache.* meters tagged cache=product.
+     */
+    @Bean
+    public MeterBinder productCacheMetrics(Cache<Long, ProductResponseDto> productCache) {
+        return new CaffeineCacheMetrics<>(productCache, "product", Tags.empty());
+    }
+}
\ No newline at end of file
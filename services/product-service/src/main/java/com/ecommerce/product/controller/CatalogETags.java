@@ -0,0 +1,53 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.dto.ProductResponseDto;
+
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * Strong ETags for catalog responses.
+ */
+final class CatalogETags {
+    
+    private CatalogETags() {}
+    
+    /**
+     * Built from the product's ID and last update, plus its stock, which reservations change
+     * without touching updated_at, and its category name, which a category rename changes
+     * without touching the product row.
+     */
+    static String forProduct(ProductResponseDto product) {
+        long updatedAtMicros = 0;
+        if (product.getUpdatedAt() != null) {
+            updatedAtMicros = product.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) * 1_000_000
+                + product.getUpdatedAt().getNano() / 1_000;
+        }
+        String categoryName = product.getCategoryName() != null ? product.getCategoryName() : "";
+        return "\"product-" + product.getId() + "-" + Long.toHexString(updatedAtMicros)
+            + "-" + product.getStockQuantity()
+            + "-" + Integer.toHexString(categoryName.hashCode()) + "\"";
+    }
+    
+    /**
+     * Built from a collection version: the catalog version for product listings, the category
+     * snapshot version for categories.
+     */
+    static String forCatalog(String resource, String catalogVersion) {
+        return "\"" + resource + "-" + catalogVersion + "\"";
+    }
+    
+    /**
+     * Built from the catalog version plus the IDs and stock of the listed products. Stock moves
+     * with every checkout without bumping the catalog version, so it is fingerprinted from the
+     * loaded page instead.
+     */
+    static String forListing(String catalogVersion, Collection<ProductResponseDto> products) {
+        long fingerprint = 17;
+        for (ProductResponseDto product : products) {
+            fingerprint = fingerprint * 31 + product.getId();
+            fingerprint = fingerprint * 31 + (product.getStockQuantity() != null ? product.getStockQuantity() : -1);
+        }
+        return forCatalog("products", catalogVersion + "-" + Long.toHexString(fingerprint));
+    }
+}
\ No newline at end of file
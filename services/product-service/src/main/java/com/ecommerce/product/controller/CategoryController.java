@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -30,15 +31,23 @@ public class CategoryController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Category>> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Category>> getCategoryById(@PathVariable Long id, WebRequest request) {
+        String eTag = CatalogETags.forCatalog("category-" + id, String.valueOf(categoryService.getCategoriesVersion()));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         Category category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(ApiResponse.success("Category retrieved successfully", category));
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Category retrieved successfully", category));
     }
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Category>>> getAllCategories() {
+    public ResponseEntity<ApiResponse<List<Category>>> getAllCategories(WebRequest request) {
+        String eTag = CatalogETags.forCatalog("categories", String.valueOf(categoryService.getCategoriesVersion()));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<Category> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(ApiResponse.success("Categories retrieved successfully", categories));
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Categories retrieved successfully", categories));
     }
     
     @PutMapping("/{id}")
@@ -1,8 +1,13 @@
 package com.ecommerce.product.controller;
 
 import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.dto.CursorPage;
+import com.ecommerce.product.dto.ProductAvailabilityDto;
+import com.ecommerce.product.dto.ProductBatchRequestDto;
 import com.ecommerce.product.dto.ProductDto;
 import com.ecommerce.product.dto.ProductResponseDto;
+import com.ecommerce.product.dto.ProductSuggestionDto;
+import com.ecommerce.product.service.CatalogVersionService;
 import com.ecommerce.product.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +18,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,6 +30,9 @@ public class ProductController {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+    
     @PostMapping
     public ResponseEntity<ApiResponse<ProductResponseDto>> createProduct(
             @Valid @RequestBody ProductDto productDto) {
@@ -34,9 +43,13 @@ public class ProductController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductResponseDto>> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<ProductResponseDto>> getProductById(@PathVariable Long id, WebRequest request) {
         ProductResponseDto product = productService.getProductById(id);
-        return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", product));
+        String eTag = CatalogETags.forProduct(product);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Product retrieved successfully", product));
     }
     
     @GetMapping
@@ -44,32 +57,92 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
-        
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest request) {
+        // Read before the products, so a write committing in between cannot hide behind an old version
+        String catalogVersion = catalogVersionService.getCatalogVersion();
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
         Page<ProductResponseDto> products = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+        String eTag = CatalogETags.forListing(catalogVersion, products.getContent());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Products retrieved successfully", products));
+    }
+    
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponseDto>>> getAllProductsAfterCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        String catalogVersion = catalogVersionService.getCatalogVersion();
+        CursorPage<ProductResponseDto> products = productService.getAllProducts(cursor, size);
+        String eTag = CatalogETags.forListing(catalogVersion, products.getContent());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Products retrieved successfully", products));
     }
     
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<ApiResponse<List<ProductResponseDto>>> getProductsByCategory(
-            @PathVariable Long categoryId) {
+            @PathVariable Long categoryId,
+            WebRequest request) {
+        String catalogVersion = catalogVersionService.getCatalogVersion();
         List<ProductResponseDto> products = productService.getProductsByCategory(categoryId);
-        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+        String eTag = CatalogETags.forListing(catalogVersion, products);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Products retrieved successfully", products));
+    }
+    
+    @GetMapping(value = "/category/{categoryId}", params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponseDto>>> getProductsByCategoryAfterCursor(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        String catalogVersion = catalogVersionService.getCatalogVersion();
+        CursorPage<ProductResponseDto> products = productService.getActiveProductsByCategory(categoryId, cursor, size);
+        String eTag = CatalogETags.forListing(catalogVersion, products.getContent());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Products retrieved successfully", products));
     }
     
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<Page<ProductResponseDto>>> searchProducts(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        String catalogVersion = catalogVersionService.getCatalogVersion();
         Pageable pageable = PageRequest.of(page, size);
         Page<ProductResponseDto> products = productService.searchProducts(query, pageable);
-        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+        String eTag = CatalogETags.forListing(catalogVersion, products.getContent());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("Products retrieved successfully", products));
+    }
+    
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestionDto>>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSuggestionDto> suggestions = productService.suggest(prefix, limit);
+        return ResponseEntity.ok(ApiResponse.success("Suggestions retrieved successfully", suggestions));
+    }
+    
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildSearchIndex() {
+        int indexed = productService.rebuildSearchIndex();
+        return ResponseEntity.ok(ApiResponse.success("Search index rebuilt successfully", indexed));
     }
     
     @PutMapping("/{id}")
@@ -101,4 +174,25 @@ public class ProductController {
         boolean available = productService.isProductAvailable(id, quantity);
         return ResponseEntity.ok(ApiResponse.success("Product availability checked", available));
     }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ProductAvailabilityDto>>> getProductsAvailability(
+            @Valid @RequestBody ProductBatchRequestDto batchRequest) {
+        List<ProductAvailabilityDto> products = productService.getProductsAvailability(batchRequest.getItems());
+        return ResponseEntity.ok(ApiResponse.success("Product availability checked", products));
+    }
+    
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<ApiResponse<String>> reserveStock(
+            @Valid @RequestBody ProductBatchRequestDto batchRequest) {
+        productService.reserveStock(batchRequest.getReservationId(), batchRequest.getItems());
+        return ResponseEntity.ok(ApiResponse.success("Product stock reserved successfully"));
+    }
+    
+    @PostMapping("/stock/release")
+    public ResponseEntity<ApiResponse<String>> releaseStock(
+            @Valid @RequestBody ProductBatchRequestDto batchRequest) {
+        productService.releaseStock(batchRequest.getReservationId(), batchRequest.getItems());
+        return ResponseEntity.ok(ApiResponse.success("Product stock released successfully"));
+    }
 }
\ No newline at end of file
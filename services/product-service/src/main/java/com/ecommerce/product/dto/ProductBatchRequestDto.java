@@ -0,0 +1,36 @@
+package com.ecommerce.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ProductBatchRequestDto {
+    
+    @NotEmpty(message = "Items are required")
+    @Valid
+    private List<ProductQuantityDto> items;
+    
+    // Optional; makes stock reserve and release idempotent for the given ID
+    @Size(max = 64, message = "Reservation ID must be at most 64 characters")
+    private String reservationId;
+    
+    public ProductBatchRequestDto() {}
+    
+    public List<ProductQuantityDto> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ProductQuantityDto> items) {
+        this.items = items;
+    }
+    
+    public String getReservationId() {
+        return reservationId;
+    }
+    
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.ecommerce.product.dto;
+
+public class ProductSuggestionDto {
+    
+    private String text;
+    private String type;
+    private Long id;
+    
+    public ProductSuggestionDto() {}
+    
+    public ProductSuggestionDto(String text, String type, Long id) {
+        this.text = text;
+        this.type = type;
+        this.id = id;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
\ No newline at end of file
@@ -38,6 +38,10 @@ public class Product {
     @Column(nullable = false)
     private Boolean active = true;
     
+    // Maintained only by the stock reserve/release queries, never by entity saves
+    @Column(name = "sales_count", nullable = false, insertable = false, updatable = false)
+    private Long salesCount = 0L;
+    
     @NotNull(message = "Category is required")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
@@ -127,6 +131,14 @@ public class Product {
         this.active = active;
     }
     
+    public Long getSalesCount() {
+        return salesCount;
+    }
+    
+    public void setSalesCount(Long salesCount) {
+        this.salesCount = salesCount;
+    }
+    
     public Category getCategory() {
         return category;
     }
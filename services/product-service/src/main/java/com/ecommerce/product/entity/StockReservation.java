@@ -0,0 +1,58 @@
+package com.ecommerce.product.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock taken for one caller-supplied reservation ID. Rows are created by
+ * {@link com.ecommerce.product.repository.StockReservationRepository#insertIfAbsent} so
+ * concurrent reserve and release calls for the same ID serialize on the primary key.
+ */
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+    
+    public enum Status {
+        RESERVED,
+        RELEASED
+    }
+    
+    @Id
+    @Column(name = "reservation_id", length = 64)
+    private String id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Product ID to reserved quantity
+    @ElementCollection
+    @CollectionTable(name = "stock_reservation_items", joinColumns = @JoinColumn(name = "reservation_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity", nullable = false)
+    private Map<Long, Integer> quantities = new HashMap<>();
+    
+    public StockReservation() {}
+    
+    public String getId() {
+        return id;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+}
\ No newline at end of file
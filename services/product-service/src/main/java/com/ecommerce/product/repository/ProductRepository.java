@@ -3,20 +3,28 @@ package com.ecommerce.product.repository;
 import com.ecommerce.product.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findByCategoryId(Long categoryId);
     
+    @EntityGraph(attributePaths = "category")
     List<Product> findByActiveTrue();
     
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByCategoryIdAndActiveTrue(Long categoryId);
+    
     @Query("SELECT p FROM Product p WHERE p.active = true AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
@@ -27,4 +35,53 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p WHERE p.active = true")
     Page<Product> findAllActive(Pageable pageable);
+    
+    @Query(value = "SELECT * FROM products p WHERE p.active = true " +
+                   "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Product> findFirstActive(@Param("limit") int limit);
+    
+    @Query(value = "SELECT * FROM products p WHERE p.active = true " +
+                   "AND (p.created_at, p.id) < (:createdAt, :id) " +
+                   "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Product> findActiveBefore(@Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   @Param("limit") int limit);
+    
+    @Query(value = "SELECT * FROM products p WHERE p.category_id = :categoryId AND p.active = true " +
+                   "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Product> findFirstActiveByCategoryId(@Param("categoryId") Long categoryId, @Param("limit") int limit);
+    
+    @Query(value = "SELECT * FROM products p WHERE p.category_id = :categoryId AND p.active = true " +
+                   "AND (p.created_at, p.id) < (:createdAt, :id) " +
+                   "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Product> findActiveByCategoryIdBefore(@Param("categoryId") Long categoryId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               @Param("limit") int limit);
+    
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :productId")
+    Optional<Integer> findStockQuantityById(@Param("productId") Long productId);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, " +
+           "p.salesCount = p.salesCount + :quantity " +
+           "WHERE p.id = :productId AND p.active = true AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, " +
+           "p.salesCount = CASE WHEN p.salesCount > :quantity THEN p.salesCount - :quantity ELSE 0 END " +
+           "WHERE p.id = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+    
+    @Query(value = "SELECT version FROM catalog_version WHERE id = 1", nativeQuery = true)
+    long findCatalogVersion();
+    
+    @Modifying
+    @Query(value = "UPDATE catalog_version SET version = version + 1 WHERE id = 1", nativeQuery = true)
+    int incrementCatalogVersion();
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+    
+    /**
+     * Claims the reservation ID. Returns 0 when the ID already exists; if another transaction
+     * holds it uncommitted, waits for that transaction to finish first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stock_reservations (reservation_id, status, created_at) " +
+                   "VALUES (:id, :status, LOCALTIMESTAMP) ON CONFLICT (reservation_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("status") String status);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = com.ecommerce.product.entity.StockReservation.Status.RELEASED " +
+           "WHERE r.id = :id AND r.status = com.ecommerce.product.entity.StockReservation.Status.RESERVED")
+    int markReleased(@Param("id") String id);
+}
\ No newline at end of file
@@ -0,0 +1,328 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over active products' name, category and description.
+ * <p>
+ * Matches are ranked by field-boosted TF-IDF, scaled by the fraction of query terms a product
+ * matches. Query terms of three or more characters also match indexed terms containing them, as
+ * the old LIKE search did ("phon" finds "iphone"), and terms with no exact match are expanded to
+ * terms within one edit (two for terms of eight or more characters). Both are scored at a discount.
+ */
+@Component
+public class ProductSearchIndex {
+    
+    private static final float NAME_BOOST = 3.0f;
+    private static final float CATEGORY_BOOST = 2.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+    private static final float SUBSTRING_MATCH_FACTOR = 0.75f;
+    private static final float FUZZY_MATCH_FACTOR = 0.5f;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+    
+    private static final Pattern NON_TERM_CHARACTERS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    
+    private Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private boolean ready;
+    
+    // Changes made while a rebuild is loading; a null value records a removal
+    private Map<Long, Map<String, Float>> pendingChanges;
+    
+    /**
+     * Adds or replaces a product. Inactive products are removed instead.
+     */
+    public void index(Product product) {
+        Map<String, Float> terms = product.getActive() ? analyze(product) : null;
+        lock.writeLock().lock();
+        try {
+            removeDocument(postings, documents, product.getId());
+            if (terms != null) {
+                addDocument(postings, documents, product.getId(), terms);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.put(product.getId(), terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(postings, documents, productId);
+            if (pendingChanges != null) {
+                pendingChanges.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces the whole index with the products returned by the loader. Searches keep running
+     * against the old index until the swap, and changes made while the loader runs are replayed
+     * onto the new index so they are not lost.
+     *
+     * @return the number of indexed products
+     */
+    public int rebuild(Supplier<? extends Collection<Product>> loader) {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
+            Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+            Map<Long, Map<String, Float>> newDocuments = new HashMap<>();
+            try {
+                for (Product product : loader.get()) {
+                    if (product.getActive()) {
+                        addDocument(newPostings, newDocuments, product.getId(), analyze(product));
+                    }
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach((productId, terms) -> {
+                    removeDocument(newPostings, newDocuments, productId);
+                    if (terms != null) {
+                        addDocument(newPostings, newDocuments, productId, terms);
+                    }
+                });
+                pendingChanges = null;
+                postings = newPostings;
+                documents = newDocuments;
+                ready = true;
+                return newDocuments.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    /**
+     * Whether the index has been loaded at least once since startup.
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the IDs of matching products, best match first, for the requested page.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        Map<Long, Float> scores = new HashMap<>();
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = new HashMap<>();
+                Map<Long, Float> exact = postings.get(queryTerm);
+                if (exact != null) {
+                    accumulate(termScores, exact, documentCount, 1.0f);
+                }
+                boolean substrings = queryTerm.length() >= MIN_SUBSTRING_LENGTH;
+                int maxEdits = exact == null ? maxEdits(queryTerm) : 0;
+                if (substrings || maxEdits > 0) {
+                    for (Map.Entry<String, Map<Long, Float>> entry : postings.entrySet()) {
+                        String term = entry.getKey();
+                        if (term.equals(queryTerm)) {
+                            continue;
+                        }
+                        if (substrings && term.contains(queryTerm)) {
+                            accumulate(termScores, entry.getValue(), documentCount, SUBSTRING_MATCH_FACTOR);
+                        } else if (maxEdits > 0 && withinEditDistance(queryTerm, term, maxEdits)) {
+                            accumulate(termScores, entry.getValue(), documentCount, FUZZY_MATCH_FACTOR);
+                        }
+                    }
+                }
+                termScores.forEach((productId, score) -> {
+                    scores.merge(productId, score, Float::sum);
+                    matchedTerms.merge(productId, 1, Integer::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.size());
+        scores.forEach((productId, score) -> ranked.add(
+            Map.entry(productId, score * matchedTerms.get(productId) / queryTerms.size())));
+        ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey()));
+        
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ranked.stream().map(Map.Entry::getKey).toList(), pageable, ranked.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> content = ranked.subList(from, to).stream().map(Map.Entry::getKey).toList();
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+    
+    private void accumulate(Map<Long, Float> termScores, Map<Long, Float> postingList, int documentCount, float factor) {
+        float idf = (float) Math.log(1.0 + (double) documentCount / postingList.size());
+        postingList.forEach((productId, weight) ->
+            termScores.merge(productId, weight * idf * factor, Math::max));
+    }
+    
+    private static void addDocument(Map<String, Map<Long, Float>> postings, Map<Long, Map<String, Float>> documents,
+                                    Long productId, Map<String, Float> terms) {
+        documents.put(productId, terms);
+        terms.forEach((term, weight) ->
+            postings.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+    }
+    
+    private static void removeDocument(Map<String, Map<Long, Float>> postings, Map<Long, Map<String, Float>> documents,
+                                       Long productId) {
+        Map<String, Float> terms = documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(productId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+    
+    private Map<String, Float> analyze(Product product) {
+        Map<String, Float> terms = new LinkedHashMap<>();
+        addField(terms, product.getName(), NAME_BOOST);
+        if (product.getCategory() != null) {
+            addField(terms, product.getCategory().getName(), CATEGORY_BOOST);
+        }
+        addField(terms, product.getDescription(), DESCRIPTION_BOOST);
+        return terms;
+    }
+    
+    private void addField(Map<String, Float> terms, String text, float boost) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        // Normalise by field length so a long description cannot outweigh a short name
+        float weight = boost / (float) Math.sqrt(tokens.size());
+        for (String token : tokens) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_TERM_CHARACTERS.split(folded.toLowerCase())) {
+            if (token.length() >= MIN_TERM_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private static int maxEdits(String term) {
+        if (term.length() >= 8) {
+            return 2;
+        }
+        return term.length() >= 4 ? 1 : 0;
+    }
+    
+    /**
+     * Bounded optimal-string-alignment distance check; adjacent transpositions count as one edit.
+     */
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previousPrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > maxEdits) {
+                return false;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.service.CatalogVersionService;
+import com.ecommerce.product.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the search and suggestion indexes from the database once the application is up, and
+ * reloads them whenever the catalog version moves, so writes made through other instances show
+ * up. Until the first load completes, product search falls back to the SQL query and
+ * suggestions are empty.
+ */
+@Component
+public class ProductSearchIndexLoader {
+    
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductSearchIndexLoader.class);
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+    
+    @Value("${product.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+    
+    // Catalog version the indexes were last loaded at; -1 until the first successful load
+    private long indexedVersion = -1;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        refreshIndex();
+    }
+    
+    /**
+     * Reloads only when the catalog version has moved past the indexed one; also retries a
+     * failed startup load. The version is read before the products, so a write committing in
+     * between is at worst loaded again by the next refresh, never missed.
+     */
+    @Scheduled(fixedDelayString = "${product.search.refresh-interval-ms:60000}")
+    public synchronized void refreshIndex() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            long version = catalogVersionService.getCurrentVersion();
+            if (version <= indexedVersion) {
+                return;
+            }
+            long start = System.nanoTime();
+            int indexed = productService.rebuildSearchIndex();
+            indexedVersion = version;
+            LOGGER.info("Indexed {} products for search at catalog version {} in {} ms",
+                indexed, version, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to build the product search index; retrying on the next refresh", e);
+        }
+    }
+}
\ No newline at end of file
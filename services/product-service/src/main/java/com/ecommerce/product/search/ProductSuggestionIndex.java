@@ -0,0 +1,460 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.entity.Category;
+import com.ecommerce.product.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trie over active product names and category names, used for search-box autocomplete.
+ * <p>
+ * Every word start of a name is a key, so "head" suggests "Wireless Headphones". Each node caches
+ * the best {@value #MAX_SUGGESTIONS} suggestions in its subtree, so a lookup is a walk down the
+ * prefix plus a copy of that list. Products are weighted by units sold and categories by the
+ * units sold across their active products.
+ */
+@Component
+public class ProductSuggestionIndex {
+    
+    public static final int MAX_SUGGESTIONS = 10;
+    
+    private static final Pattern NON_TERM_CHARACTERS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    
+    private State state = new State();
+    
+    // Changes made while a rebuild is loading, replayed onto the new trie before the swap
+    private List<Consumer<State>> pendingChanges;
+    
+    public enum SuggestionType {
+        PRODUCT,
+        CATEGORY
+    }
+    
+    /**
+     * Returns up to {@code limit} suggestions whose name has a word starting with the prefix,
+     * most popular first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = state.root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            return List.of(Arrays.copyOf(node.top, Math.min(limit, node.top.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Adds or replaces a product. Inactive products are removed instead.
+     */
+    public void index(Product product) {
+        Long productId = product.getId();
+        if (!product.getActive()) {
+            remove(productId);
+            return;
+        }
+        String name = product.getName();
+        Long categoryId = product.getCategory().getId();
+        long weight = product.getSalesCount() != null ? product.getSalesCount() : 0L;
+        apply(state -> state.putProduct(productId, name, categoryId, weight));
+    }
+    
+    public void remove(Long productId) {
+        apply(state -> state.removeProduct(productId));
+    }
+    
+    /**
+     * Adjusts a product's popularity by the given number of units; negative for returned stock.
+     */
+    public void addPopularity(Long productId, long units) {
+        apply(state -> state.addProductWeight(productId, units));
+    }
+    
+    public void indexCategory(Category category) {
+        Long categoryId = category.getId();
+        String name = category.getName();
+        apply(state -> state.putCategory(categoryId, name));
+    }
+    
+    public void removeCategory(Long categoryId) {
+        apply(state -> state.removeCategory(categoryId));
+    }
+    
+    /**
+     * Replaces the whole trie with the loaded categories and products. Lookups keep running
+     * against the old trie until the swap. Popularity changes replayed from the load window may
+     * count a sale twice, which the next rebuild corrects.
+     */
+    public void rebuild(Supplier<? extends Collection<Category>> categories,
+                        Supplier<? extends Collection<Product>> products) {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
+            State rebuilt = new State();
+            try {
+                for (Category category : categories.get()) {
+                    rebuilt.putCategory(category.getId(), category.getName());
+                }
+                for (Product product : products.get()) {
+                    if (product.getActive()) {
+                        long weight = product.getSalesCount() != null ? product.getSalesCount() : 0L;
+                        rebuilt.putProduct(product.getId(), product.getName(), product.getCategory().getId(), weight);
+                    }
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                pendingChanges = null;
+                state = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private void apply(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_TERM_CHARACTERS.matcher(folded.toLowerCase()).replaceAll(" ").trim();
+    }
+    
+    /**
+     * The normalised name and each of its word-start suffixes.
+     */
+    static Set<String> keys(String name) {
+        String normalized = normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+    
+    public static final class Suggestion {
+        
+        private static final Comparator<Suggestion> BY_POPULARITY = Comparator
+            .comparingLong(Suggestion::getWeight).reversed()
+            .thenComparing(Suggestion::getText, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Suggestion::getType)
+            .thenComparing(Suggestion::getId);
+        
+        private final SuggestionType type;
+        private final Long id;
+        private final String text;
+        private final long weight;
+        
+        Suggestion(SuggestionType type, Long id, String text, long weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+        }
+        
+        public SuggestionType getType() {
+            return type;
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public String getText() {
+            return text;
+        }
+        
+        public long getWeight() {
+            return weight;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Suggestion other)) {
+                return false;
+            }
+            return type == other.type && id.equals(other.id);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+    
+    private static final class State {
+        
+        private final Node root = new Node();
+        private final Map<Long, Suggestion> products = new HashMap<>();
+        private final Map<Long, Long> productCategories = new HashMap<>();
+        private final Map<Long, Suggestion> categories = new HashMap<>();
+        private final Map<Long, Long> categoryWeights = new HashMap<>();
+        
+        void putProduct(Long productId, String name, Long categoryId, long weight) {
+            removeProduct(productId);
+            Suggestion suggestion = new Suggestion(SuggestionType.PRODUCT, productId, name, Math.max(weight, 0L));
+            products.put(productId, suggestion);
+            productCategories.put(productId, categoryId);
+            insertAll(suggestion);
+            addCategoryWeight(categoryId, suggestion.weight);
+        }
+        
+        void removeProduct(Long productId) {
+            Suggestion suggestion = products.remove(productId);
+            if (suggestion != null) {
+                deleteAll(suggestion);
+                addCategoryWeight(productCategories.remove(productId), -suggestion.weight);
+            }
+        }
+        
+        void addProductWeight(Long productId, long units) {
+            Suggestion current = products.get(productId);
+            if (current == null || units == 0) {
+                return;
+            }
+            Suggestion updated = new Suggestion(current.type, current.id, current.text, Math.max(current.weight + units, 0L));
+            deleteAll(current);
+            products.put(productId, updated);
+            insertAll(updated);
+            addCategoryWeight(productCategories.get(productId), updated.weight - current.weight);
+        }
+        
+        void putCategory(Long categoryId, String name) {
+            Suggestion current = categories.get(categoryId);
+            if (current != null) {
+                deleteAll(current);
+            }
+            Suggestion suggestion = new Suggestion(SuggestionType.CATEGORY, categoryId, name,
+                categoryWeights.getOrDefault(categoryId, 0L));
+            categories.put(categoryId, suggestion);
+            insertAll(suggestion);
+        }
+        
+        void removeCategory(Long categoryId) {
+            // Deleting a category deletes its products too
+            List<Long> productIds = new ArrayList<>();
+            productCategories.forEach((productId, productCategoryId) -> {
+                if (categoryId.equals(productCategoryId)) {
+                    productIds.add(productId);
+                }
+            });
+            productIds.forEach(this::removeProduct);
+            categoryWeights.remove(categoryId);
+            
+            Suggestion suggestion = categories.remove(categoryId);
+            if (suggestion != null) {
+                deleteAll(suggestion);
+            }
+        }
+        
+        private void addCategoryWeight(Long categoryId, long delta) {
+            if (categoryId == null || delta == 0) {
+                return;
+            }
+            long weight = Math.max(categoryWeights.getOrDefault(categoryId, 0L) + delta, 0L);
+            categoryWeights.put(categoryId, weight);
+            Suggestion current = categories.get(categoryId);
+            if (current != null) {
+                Suggestion updated = new Suggestion(current.type, current.id, current.text, weight);
+                deleteAll(current);
+                categories.put(categoryId, updated);
+                insertAll(updated);
+            }
+        }
+        
+        private void insertAll(Suggestion suggestion) {
+            for (String key : keys(suggestion.text)) {
+                insert(key, suggestion);
+            }
+        }
+        
+        private void deleteAll(Suggestion suggestion) {
+            for (String key : keys(suggestion.text)) {
+                delete(key, suggestion);
+            }
+        }
+        
+        private void insert(String key, Suggestion suggestion) {
+            Node[] path = new Node[key.length() + 1];
+            Node node = root;
+            path[0] = node;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                path[i + 1] = node;
+            }
+            node.terminals.add(suggestion);
+            for (int i = key.length(); i >= 0; i--) {
+                path[i].recomputeTop();
+            }
+        }
+        
+        private void delete(String key, Suggestion suggestion) {
+            Node[] path = new Node[key.length() + 1];
+            Node node = root;
+            path[0] = node;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i));
+                if (node == null) {
+                    return;
+                }
+                path[i + 1] = node;
+            }
+            if (!node.terminals.remove(suggestion)) {
+                return;
+            }
+            for (int i = key.length(); i >= 0; i--) {
+                path[i].recomputeTop();
+                if (i > 0 && path[i].isEmpty()) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Trie node with children in parallel sorted arrays, searched by binary search.
+     */
+    private static final class Node {
+        
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+        
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private final Set<Suggestion> terminals = new HashSet<>(2);
+        private Suggestion[] top = NO_SUGGESTIONS;
+        
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+        
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+        
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels.length == 0 ? NO_LABELS : newLabels;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+        
+        boolean isEmpty() {
+            return terminals.isEmpty() && children.length == 0;
+        }
+        
+        /**
+         * Merges this node's own suggestions with its children's cached best lists. A name with
+         * two word-start keys in the same subtree is only counted once.
+         */
+        void recomputeTop() {
+            List<Suggestion> candidates = new ArrayList<>(terminals);
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(Suggestion.BY_POPULARITY);
+            List<Suggestion> best = new ArrayList<>(MAX_SUGGESTIONS);
+            Set<Suggestion> seen = new HashSet<>();
+            for (Suggestion candidate : candidates) {
+                if (seen.add(candidate)) {
+                    best.add(candidate);
+                    if (best.size() == MAX_SUGGESTIONS) {
+                        break;
+                    }
+                }
+            }
+            top = best.isEmpty() ? NO_SUGGESTIONS : best.toArray(NO_SUGGESTIONS);
+        }
+    }
+}
\ No newline at end of file
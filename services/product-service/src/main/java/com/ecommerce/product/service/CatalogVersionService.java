@@ -0,0 +1,38 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class CatalogVersionService {
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    /**
+     * Opaque token that changes with any product or category write, but not with stock
+     * movements. Read from the database, so it stays correct when several instances share it,
+     * at the cost of one primary-key lookup.
+     */
+    public String getCatalogVersion() {
+        return Long.toString(getCurrentVersion());
+    }
+    
+    public long getCurrentVersion() {
+        return productRepository.findCatalogVersion();
+    }
+    
+    /**
+     * Bumps the version inside the caller's transaction, so it commits or rolls back with the
+     * write. Call it right after the repository write: the update flushes the pending change
+     * first, so a constraint violation surfaces before any in-memory state is touched.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long increment() {
+        productRepository.incrementCatalogVersion();
+        return productRepository.findCatalogVersion();
+    }
+}
\ No newline at end of file
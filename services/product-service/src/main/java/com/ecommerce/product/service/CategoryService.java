@@ -3,12 +3,25 @@ package com.ecommerce.product.service;
 import com.ecommerce.common.exception.BadRequestException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
 import com.ecommerce.product.dto.CategoryDto;
+import com.ecommerce.product.dto.ProductResponseDto;
 import com.ecommerce.product.entity.Category;
+import com.ecommerce.product.entity.Product;
 import com.ecommerce.product.repository.CategoryRepository;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.search.ProductSuggestionIndex;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
@@ -16,40 +29,180 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+    
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+    
+    @Autowired
+    private Cache<Long, ProductResponseDto> productCache;
+    
+    // Loaded on first read; swapped atomically on every write
+    private final AtomicReference<CategorySnapshot> snapshot = new AtomicReference<>();
+    
+    @Transactional
     public Category createCategory(CategoryDto categoryDto) {
         if (categoryRepository.existsByName(categoryDto.getName())) {
             throw new BadRequestException("Category with name '" + categoryDto.getName() + "' already exists");
         }
         
         Category category = new Category(categoryDto.getName(), categoryDto.getDescription());
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        long version = catalogVersionService.increment();
+        publish(version, current -> current.with(savedCategory, version));
+        productSuggestionIndex.indexCategory(savedCategory);
+        return savedCategory;
     }
     
+    /**
+     * Served from the in-memory snapshot. The returned category is shared and must not be modified.
+     */
     public Category getCategoryById(Long id) {
-        return categoryRepository.findById(id)
+        Category category = currentSnapshot().getById(id);
+        if (category != null) {
+            return category;
+        }
+        // May have been created through another instance since the last refresh
+        Category loaded = categoryRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+        return publish(loaded).getById(id);
+    }
+    
+    /**
+     * Served from the in-memory snapshot. The returned category is shared and must not be modified.
+     */
+    public Category getCategoryByName(String name) {
+        Category category = currentSnapshot().getByName(name);
+        if (category != null) {
+            return category;
+        }
+        Category loaded = categoryRepository.findByName(name)
+            .orElseThrow(() -> new ResourceNotFoundException("Category", "name", name));
+        return publish(loaded).getById(loaded.getId());
     }
     
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return currentSnapshot().getCategories();
+    }
+    
+    /**
+     * The catalog version the snapshot reflects, shared by all instances; usable as a validator
+     * for conditional requests.
+     */
+    public long getCategoriesVersion() {
+        return currentSnapshot().getVersion();
     }
     
+    @Transactional
     public Category updateCategory(Long id, CategoryDto categoryDto) {
-        Category category = getCategoryById(id);
+        Category category = categoryRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         
-        if (!category.getName().equals(categoryDto.getName()) && 
-            categoryRepository.existsByName(categoryDto.getName())) {
+        boolean renamed = !category.getName().equals(categoryDto.getName());
+        if (renamed && categoryRepository.existsByName(categoryDto.getName())) {
             throw new BadRequestException("Category with name '" + categoryDto.getName() + "' already exists");
         }
         
         category.setName(categoryDto.getName());
         category.setDescription(categoryDto.getDescription());
         
-        return categoryRepository.save(category);
+        Category updatedCategory = categoryRepository.save(category);
+        long version = catalogVersionService.increment();
+        publish(version, current -> current.with(updatedCategory, version));
+        productSuggestionIndex.indexCategory(updatedCategory);
+        if (renamed) {
+            // Search terms include the category name
+            productRepository.findByCategoryIdAndActiveTrue(id).forEach(productSearchIndex::index);
+        }
+        // Cached products carry the category name; renames are rare enough to drop them all
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productCache.invalidateAll();
+            }
+        });
+        return updatedCategory;
     }
     
+    @Transactional
     public void deleteCategory(Long id) {
-        Category category = getCategoryById(id);
+        Category category = categoryRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+        // The category's products are deleted with it
+        List<Long> productIds = category.getProducts().stream()
+            .map(Product::getId)
+            .collect(Collectors.toList());
         categoryRepository.delete(category);
+        long version = catalogVersionService.increment();
+        publish(version, current -> current.without(id, version));
+        productSuggestionIndex.removeCategory(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productIds.forEach(productId -> {
+                    productSearchIndex.remove(productId);
+                    productCache.invalidate(productId);
+                });
+            }
+        });
+    }
+    
+    /**
+     * Picks up category changes made through other instances. Reloads only when the catalog
+     * version has moved past the snapshot's, and a write published during the reload wins.
+     */
+    @Scheduled(fixedDelayString = "${category.snapshot.refresh-interval-ms:60000}")
+    public void refreshSnapshot() {
+        CategorySnapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        long version = catalogVersionService.getCurrentVersion();
+        if (version > current.getVersion()) {
+            snapshot.compareAndSet(current, load(version));
+        }
+    }
+    
+    private CategorySnapshot currentSnapshot() {
+        CategorySnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        CategorySnapshot loaded = load(catalogVersionService.getCurrentVersion());
+        return snapshot.compareAndSet(null, loaded) ? loaded : snapshot.get();
+    }
+    
+    /**
+     * Reads the categories after the version, so a write committing in between is at worst
+     * included early and reloaded again by the next refresh, never missed.
+     */
+    private CategorySnapshot load(long version) {
+        return CategorySnapshot.of(version, categoryRepository.findAll());
+    }
+    
+    private CategorySnapshot publish(Category category) {
+        currentSnapshot();
+        return snapshot.updateAndGet(current -> current.with(category));
+    }
+    
+    /**
+     * Applies a write made under the given catalog version in the current transaction. If the
+     * snapshot is missing writes from other instances, it is reloaded instead; this transaction
+     * holds the version row lock, so the reload sees exactly the content of that version.
+     */
+    private void publish(long version, UnaryOperator<CategorySnapshot> change) {
+        CategorySnapshot current = currentSnapshot();
+        if (current.getVersion() >= version) {
+            // Loaded inside this transaction, so it already includes the write
+            return;
+        }
+        snapshot.set(current.getVersion() == version - 1 ? change.apply(current) : load(version));
     }
 }
\ No newline at end of file
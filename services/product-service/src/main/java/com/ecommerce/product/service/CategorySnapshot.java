@@ -0,0 +1,100 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.entity.Category;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of all categories, indexed by ID and name. Writers derive a new snapshot
+ * instead of modifying this one. The version is the catalog version the content was read at
+ * or written under, so every instance labels the same content the same way.
+ * <p>
+ * The categories are detached copies without their product collections; callers must treat
+ * them as read-only.
+ */
+final class CategorySnapshot {
+    
+    private final long version;
+    private final List<Category> categories;
+    private final Map<Long, Category> categoriesById;
+    private final Map<String, Category> categoriesByName;
+    
+    private CategorySnapshot(long version, Collection<Category> categories) {
+        List<Category> sorted = new ArrayList<>(categories);
+        sorted.sort(Comparator.comparing(Category::getId));
+        Map<Long, Category> byId = new HashMap<>();
+        Map<String, Category> byName = new HashMap<>();
+        for (Category category : sorted) {
+            byId.put(category.getId(), category);
+            byName.put(category.getName(), category);
+        }
+        this.version = version;
+        this.categories = Collections.unmodifiableList(sorted);
+        this.categoriesById = Collections.unmodifiableMap(byId);
+        this.categoriesByName = Collections.unmodifiableMap(byName);
+    }
+    
+    static CategorySnapshot of(long version, Collection<Category> categories) {
+        List<Category> copies = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            copies.add(copyOf(category));
+        }
+        return new CategorySnapshot(version, copies);
+    }
+    
+    long getVersion() {
+        return version;
+    }
+    
+    List<Category> getCategories() {
+        return categories;
+    }
+    
+    Category getById(Long id) {
+        return categoriesById.get(id);
+    }
+    
+    Category getByName(String name) {
+        return categoriesByName.get(name);
+    }
+    
+    /**
+     * A new snapshot at the same version with a category read from the database added or
+     * replaced. Its content may be ahead of the version until the next reload catches up.
+     */
+    CategorySnapshot with(Category category) {
+        return with(category, version);
+    }
+    
+    /**
+     * A new snapshot at the given version with the category added or replaced.
+     */
+    CategorySnapshot with(Category category, long newVersion) {
+        Map<Long, Category> updated = new HashMap<>(categoriesById);
+        updated.put(category.getId(), copyOf(category));
+        return new CategorySnapshot(newVersion, updated.values());
+    }
+    
+    /**
+     * A new snapshot at the given version without the category.
+     */
+    CategorySnapshot without(Long id, long newVersion) {
+        Map<Long, Category> updated = new HashMap<>(categoriesById);
+        updated.remove(id);
+        return new CategorySnapshot(newVersion, updated.values());
+    }
+    
+    private static Category copyOf(Category category) {
+        Category copy = new Category(category.getName(), category.getDescription());
+        copy.setId(category.getId());
+        copy.setCreatedAt(category.getCreatedAt());
+        copy.setUpdatedAt(category.getUpdatedAt());
+        return copy;
+    }
+}
\ No newline at end of file
@@ -1,18 +1,39 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.common.dto.CursorPage;
+import com.ecommerce.common.dto.KeysetCursor;
 import com.ecommerce.common.exception.BadRequestException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
+import com.ecommerce.product.dto.ProductAvailabilityDto;
 import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.dto.ProductQuantityDto;
 import com.ecommerce.product.dto.ProductResponseDto;
+import com.ecommerce.product.dto.ProductSuggestionDto;
 import com.ecommerce.product.entity.Category;
 import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.entity.StockReservation;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.StockReservationRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.search.ProductSuggestionIndex;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,9 +42,25 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+    
     @Autowired
     private CategoryService categoryService;
     
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+    
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+    
+    @Autowired
+    private Cache<Long, ProductResponseDto> productCache;
+    
+    @Transactional
     public ProductResponseDto createProduct(ProductDto productDto) {
         Category category = categoryService.getCategoryById(productDto.getCategoryId());
         
@@ -37,13 +74,30 @@ public class ProductService {
         product.setImageUrl(productDto.getImageUrl());
         
         Product savedProduct = productRepository.save(product);
+        catalogVersionService.increment();
+        productSearchIndex.index(savedProduct);
+        productSuggestionIndex.index(savedProduct);
         return convertToResponseDto(savedProduct);
     }
     
+    /**
+     * Served from the product cache; concurrent misses for the same ID share a single load.
+     * Stock changes on every checkout, on any instance, so it is not cached: the stock quantity
+     * is read fresh by primary key and filled into a copy of the cached entry.
+     */
     public ProductResponseDto getProductById(Long id) {
+        ProductResponseDto cached = productCache.get(id, this::loadProduct);
+        Integer stockQuantity = productRepository.findStockQuantityById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        return withStockQuantity(cached, stockQuantity);
+    }
+    
+    private ProductResponseDto loadProduct(Long id) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        return convertToResponseDto(product);
+        ProductResponseDto dto = convertToResponseDto(product);
+        dto.setStockQuantity(null);
+        return dto;
     }
     
     public Page<ProductResponseDto> getAllProducts(Pageable pageable) {
@@ -51,17 +105,117 @@ public class ProductService {
             .map(this::convertToResponseDto);
     }
     
+    /**
+     * Keyset-paginated listing of active products, newest first.
+     */
+    public CursorPage<ProductResponseDto> getAllProducts(String cursor, int size) {
+        return toCursorPage(
+            cursor,
+            size,
+            () -> productRepository.findFirstActive(size + 1),
+            keyset -> productRepository.findActiveBefore(keyset.getCreatedAt(), keyset.getId(), size + 1)
+        );
+    }
+    
+    /**
+     * Keyset-paginated browsing of the active products in a category, newest first.
+     */
+    public CursorPage<ProductResponseDto> getActiveProductsByCategory(Long categoryId, String cursor, int size) {
+        return toCursorPage(
+            cursor,
+            size,
+            () -> productRepository.findFirstActiveByCategoryId(categoryId, size + 1),
+            keyset -> productRepository.findActiveByCategoryIdBefore(categoryId, keyset.getCreatedAt(), keyset.getId(), size + 1)
+        );
+    }
+    
+    private CursorPage<ProductResponseDto> toCursorPage(String cursor, int size,
+                                                        Supplier<List<Product>> firstPage,
+                                                        Function<KeysetCursor, List<Product>> nextPage) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        
+        List<Product> products = cursor == null || cursor.isBlank()
+            ? firstPage.get()
+            : nextPage.apply(KeysetCursor.decode(cursor));
+        
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        List<ProductResponseDto> content = page.stream()
+            .map(this::convertToResponseDto)
+            .collect(Collectors.toList());
+        return new CursorPage<>(content, size, nextCursor);
+    }
+    
     public List<ProductResponseDto> getProductsByCategory(Long categoryId) {
         return productRepository.findByCategoryId(categoryId).stream()
             .map(this::convertToResponseDto)
             .collect(Collectors.toList());
     }
     
+    /**
+     * Ranked, typo-tolerant search served from the in-process index. Until the index has been
+     * loaded after startup, falls back to the SQL substring search.
+     */
     public Page<ProductResponseDto> searchProducts(String searchTerm, Pageable pageable) {
-        return productRepository.searchActiveProducts(searchTerm, pageable)
-            .map(this::convertToResponseDto);
+        if (!productSearchIndex.isReady()) {
+            return productRepository.searchActiveProducts(searchTerm, pageable)
+                .map(this::convertToResponseDto);
+        }
+        
+        Page<Long> hits = productSearchIndex.search(searchTerm, pageable);
+        Map<Long, Product> products = productRepository.findAllById(hits.getContent()).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        List<ProductResponseDto> content = new ArrayList<>(hits.getNumberOfElements());
+        for (Long productId : hits.getContent()) {
+            Product product = products.get(productId);
+            // Deactivated through another instance since it was indexed
+            if (product != null && product.getActive()) {
+                content.add(convertToResponseDto(product));
+            }
+        }
+        return new PageImpl<>(content, pageable, hits.getTotalElements());
+    }
+    
+    /**
+     * Autocomplete over active product names and category names, most popular first.
+     * Served entirely from memory.
+     */
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        int cappedLimit = Math.min(limit, ProductSuggestionIndex.MAX_SUGGESTIONS);
+        return productSuggestionIndex.suggest(prefix, cappedLimit).stream()
+            .map(suggestion -> new ProductSuggestionDto(suggestion.getText(), suggestion.getType().name(), suggestion.getId()))
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Reloads the search and suggestion indexes from the database, e.g. at startup or after bulk imports.
+     *
+     * @return the number of products in the search index
+     */
+    @Transactional(readOnly = true)
+    public int rebuildSearchIndex() {
+        // One read feeds both indexes. The suggestion rebuild runs inside the search index's load,
+        // so both are recording concurrent changes before the products are read.
+        AtomicReference<List<Product>> products = new AtomicReference<>();
+        return productSearchIndex.rebuild(() -> {
+            productSuggestionIndex.rebuild(categoryService::getAllCategories, () -> {
+                products.set(productRepository.findByActiveTrue());
+                return products.get();
+            });
+            return products.get();
+        });
     }
     
+    @Transactional
     public ProductResponseDto updateProduct(Long id, ProductDto productDto) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
@@ -76,14 +230,23 @@ public class ProductService {
         product.setCategory(category);
         
         Product updatedProduct = productRepository.save(product);
+        catalogVersionService.increment();
+        evictAfterCommit(id);
+        productSearchIndex.index(updatedProduct);
+        productSuggestionIndex.index(updatedProduct);
         return convertToResponseDto(updatedProduct);
     }
     
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         product.setActive(false);
         productRepository.save(product);
+        catalogVersionService.increment();
+        evictAfterCommit(id);
+        productSearchIndex.remove(id);
+        productSuggestionIndex.remove(id);
     }
     
     public ProductResponseDto updateStock(Long productId, Integer newStock) {
@@ -96,6 +259,7 @@ public class ProductService {
         
         product.setStockQuantity(newStock);
         Product updatedProduct = productRepository.save(product);
+        productCache.invalidate(productId);
         return convertToResponseDto(updatedProduct);
     }
     
@@ -106,6 +270,172 @@ public class ProductService {
         return product.getActive() && product.getStockQuantity() >= quantity;
     }
     
+    /**
+     * Resolves product info and stock availability for a whole cart in a single query.
+     * Quantities for repeated product IDs are summed; unknown IDs are omitted from the result.
+     */
+    public List<ProductAvailabilityDto> getProductsAvailability(List<ProductQuantityDto> items) {
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (ProductQuantityDto item : items) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        Map<Long, Product> products = productRepository.findAllById(requested.keySet()).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        List<ProductAvailabilityDto> result = new ArrayList<>(products.size());
+        requested.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product != null) {
+                result.add(convertToAvailabilityDto(product, quantity));
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Atomically takes stock for every item with one conditional UPDATE per product.
+     * Products are updated in ID order so concurrent reservations cannot deadlock, and if
+     * any product lacks stock the whole transaction rolls back, restoring earlier decrements.
+     */
+    @Transactional
+    public void reserveStock(List<ProductQuantityDto> items) {
+        Map<Long, Integer> quantities = aggregateQuantities(items);
+        quantities.forEach((productId, quantity) -> {
+            if (productRepository.decrementStock(productId, quantity) == 0) {
+                throw new BadRequestException("Insufficient stock for product with ID " + productId);
+            }
+        });
+        onStockCommitted(quantities, 1);
+    }
+    
+    /**
+     * Reserves stock under a caller-supplied ID. Repeating a reservation that succeeded is a
+     * no-op, and a reservation already released (or released before it arrived) is rejected,
+     * so callers can register the release before they know whether the reserve went through.
+     */
+    @Transactional
+    public void reserveStock(String reservationId, List<ProductQuantityDto> items) {
+        if (reservationId == null) {
+            reserveStock(items);
+            return;
+        }
+        if (stockReservationRepository.insertIfAbsent(reservationId, StockReservation.Status.RESERVED.name()) == 0) {
+            StockReservation existing = stockReservationRepository.findById(reservationId).orElseThrow();
+            if (existing.getStatus() == StockReservation.Status.RELEASED) {
+                throw new BadRequestException("Stock reservation " + reservationId + " has already been released");
+            }
+            return;
+        }
+        
+        reserveStock(items);
+        StockReservation reservation = stockReservationRepository.findById(reservationId).orElseThrow();
+        reservation.getQuantities().putAll(aggregateQuantities(items));
+    }
+    
+    /**
+     * Returns previously reserved stock, e.g. when an order is cancelled or fails to persist.
+     */
+    @Transactional
+    public void releaseStock(List<ProductQuantityDto> items) {
+        Map<Long, Integer> quantities = aggregateQuantities(items);
+        quantities.forEach((productId, quantity) -> {
+            if (productRepository.incrementStock(productId, quantity) == 0) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+        });
+        onStockCommitted(quantities, -1);
+    }
+    
+    /**
+     * Returns the stock held by a reservation, at most once. Releasing an unknown ID leaves a
+     * RELEASED tombstone so a reserve that arrives later is rejected instead of leaking stock.
+     */
+    @Transactional
+    public void releaseStock(String reservationId, List<ProductQuantityDto> items) {
+        if (reservationId == null) {
+            releaseStock(items);
+            return;
+        }
+        if (stockReservationRepository.markReleased(reservationId) == 0) {
+            if (stockReservationRepository.insertIfAbsent(reservationId, StockReservation.Status.RELEASED.name()) == 1) {
+                return;
+            }
+            // A concurrent reserve committed while we waited on its row; release it now
+            if (stockReservationRepository.markReleased(reservationId) == 0) {
+                return;
+            }
+        }
+        
+        Map<Long, Integer> quantities = new TreeMap<>(
+            stockReservationRepository.findById(reservationId).orElseThrow().getQuantities());
+        quantities.forEach((productId, quantity) -> productRepository.incrementStock(productId, quantity));
+        onStockCommitted(quantities, -1);
+    }
+    
+    /**
+     * Once the stock update has committed, mirrors the sales_count change into the suggestion
+     * index. Cached products hold neither stock nor sales, so they stay valid.
+     */
+    private void onStockCommitted(Map<Long, Integer> quantities, int direction) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                quantities.forEach((productId, quantity) ->
+                    productSuggestionIndex.addPopularity(productId, (long) direction * quantity));
+            }
+        });
+    }
+    
+    /**
+     * Evicts the cached product once the write has committed. Evicting earlier would let a
+     * concurrent miss reload the old row and cache it until the TTL runs out.
+     */
+    private void evictAfterCommit(Long productId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productCache.invalidate(productId);
+            }
+        });
+    }
+    
+    private Map<Long, Integer> aggregateQuantities(List<ProductQuantityDto> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ProductQuantityDto item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+    
+    private ProductAvailabilityDto convertToAvailabilityDto(Product product, Integer quantity) {
+        ProductAvailabilityDto dto = new ProductAvailabilityDto();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setPrice(product.getPrice());
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setActive(product.getActive());
+        dto.setRequestedQuantity(quantity);
+        dto.setAvailable(product.getActive() && product.getStockQuantity() >= quantity);
+        return dto;
+    }
+    
+    private ProductResponseDto withStockQuantity(ProductResponseDto cached, Integer stockQuantity) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.setId(cached.getId());
+        dto.setName(cached.getName());
+        dto.setDescription(cached.getDescription());
+        dto.setPrice(cached.getPrice());
+        dto.setStockQuantity(stockQuantity);
+        dto.setImageUrl(cached.getImageUrl());
+        dto.setActive(cached.getActive());
+        dto.setCategoryId(cached.getCategoryId());
+        dto.setCategoryName(cached.getCategoryName());
+        dto.setCreatedAt(cached.getCreatedAt());
+        dto.setUpdatedAt(cached.getUpdatedAt());
+        return dto;
+    }
+    
     private ProductResponseDto convertToResponseDto(Product product) {
         ProductResponseDto dto = new ProductResponseDto();
         dto.setId(product.getId());
@@ -0,0 +1,15 @@
+-- Indexes matched to the query shapes in ProductRepository and CategoryRepository
+
+-- All products in a category, including inactive ones
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category_id);
+
+-- Active catalog listing, newest first (keyset pagination)
+CREATE INDEX IF NOT EXISTS idx_products_active_created_at ON products (created_at DESC, id DESC) WHERE active = true;
+
+-- Active products within a category, newest first (category browsing)
+CREATE INDEX IF NOT EXISTS idx_products_active_category_created_at ON products (category_id, created_at DESC, id DESC) WHERE active = true;
+
+-- Substring search on name and description
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_products_active_name_trgm ON products USING gin (LOWER(name) gin_trgm_ops) WHERE active = true;
+CREATE INDEX IF NOT EXISTS idx_products_active_description_trgm ON products USING gin (LOWER(description) gin_trgm_ops) WHERE active = true;
@@ -0,0 +1,4 @@
+-- Units sold per product, maintained by the stock reserve and release updates
+-- Used to rank autocomplete suggestions by popularity
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS sales_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Lets the catalog version query read MAX(updated_at) from the index instead of scanning products
+
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products (updated_at);
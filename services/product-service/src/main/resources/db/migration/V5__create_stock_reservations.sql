@@ -0,0 +1,16 @@
+-- Stock reservations keyed by a caller-supplied ID, so reserve is idempotent and a reservation
+-- can be released by ID even when the caller never learned whether the reserve succeeded.
+-- Releasing an unknown ID leaves a RELEASED tombstone that makes a late reserve fail.
+
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    reservation_id VARCHAR(64) PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS stock_reservation_items (
+    reservation_id VARCHAR(64) NOT NULL REFERENCES stock_reservations (reservation_id),
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (reservation_id, product_id)
+);
@@ -0,0 +1,12 @@
+-- Single-row counter behind the catalog listing ETag, bumped in the same transaction as every
+-- product or category write. The row lock orders concurrent writers, so the version follows
+-- commit order, unlike MAX(updated_at), which also moved with every stock change.
+
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+DROP INDEX IF EXISTS idx_products_updated_at;
@@ -0,0 +1,161 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.entity.Category;
+import com.ecommerce.product.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+	private static final Category PHONES = category(1L, "Phones");
+	private static final Category AUDIO = category(2L, "Audio");
+
+	private final ProductSearchIndex index = new ProductSearchIndex();
+
+	@Test
+	void tokenizeLowercasesFoldsAccentsAndDropsShortTokens() {
+		assertEquals(List.of("cafe", "creme", "brulee"), ProductSearchIndex.tokenize("Café  Crème-Brûlée!"));
+		assertEquals(List.of("usb", "c3"), ProductSearchIndex.tokenize("a USB/C3 x"));
+		assertEquals(List.of(), ProductSearchIndex.tokenize("   "));
+		assertEquals(List.of(), ProductSearchIndex.tokenize(null));
+	}
+
+	@Test
+	void withinEditDistanceCountsSubstitutionsInsertionsAndTranspositions() {
+		assertTrue(ProductSearchIndex.withinEditDistance("phone", "phone", 0));
+		assertTrue(ProductSearchIndex.withinEditDistance("phone", "phane", 1));
+		assertTrue(ProductSearchIndex.withinEditDistance("phone", "phones", 1));
+		assertTrue(ProductSearchIndex.withinEditDistance("phone", "hpone", 1));
+		assertFalse(ProductSearchIndex.withinEditDistance("phone", "hpnoe", 1));
+		assertTrue(ProductSearchIndex.withinEditDistance("headphones", "haedphnoes", 2));
+		assertFalse(ProductSearchIndex.withinEditDistance("phone", "phoneses", 2));
+	}
+
+	@Test
+	void nameMatchesRankAboveDescriptionMatches() {
+		index.index(product(1L, "Charging cable", "Works with any phone", AUDIO));
+		index.index(product(2L, "Phone stand", "Aluminium desk stand", AUDIO));
+
+		assertEquals(List.of(2L, 1L), search("phone"));
+	}
+
+	@Test
+	void productsMatchingMoreQueryTermsRankFirst() {
+		index.index(product(1L, "Wireless headphones", "Over-ear", AUDIO));
+		index.index(product(2L, "Wireless charger", "Qi pad", PHONES));
+		index.index(product(3L, "Wired headphones", "In-ear", AUDIO));
+
+		assertEquals(1L, search("wireless headphones").get(0));
+	}
+
+	@Test
+	void exactMatchesRankAboveSubstringMatches() {
+		index.index(product(1L, "iPhone case", null, AUDIO));
+		index.index(product(2L, "Phone case", null, AUDIO));
+
+		assertEquals(List.of(2L, 1L), search("phone"));
+	}
+
+	@Test
+	void misspelledTermsMatchWithinEditDistance() {
+		index.index(product(1L, "Wireless headphones", null, AUDIO));
+
+		assertEquals(List.of(1L), search("hedphones"));
+		assertEquals(List.of(1L), search("wirelss"));
+		assertEquals(List.of(), search("wrlss"));
+	}
+
+	@Test
+	void partialTermsMatchLongerIndexedTerms() {
+		index.index(product(1L, "iPhone 15", null, PHONES));
+
+		assertEquals(List.of(1L), search("phon"));
+	}
+
+	@Test
+	void resultsArePaged() {
+		for (long id = 1; id <= 3; id++) {
+			index.index(product(id, "Speaker " + id, null, AUDIO));
+		}
+
+		Page<Long> page = index.search("speaker", PageRequest.of(1, 2));
+
+		assertEquals(3, page.getTotalElements());
+		assertEquals(List.of(3L), page.getContent());
+	}
+
+	@Test
+	void categoryNameIsSearchable() {
+		index.index(product(1L, "Studio monitor", null, AUDIO));
+
+		assertEquals(List.of(1L), search("audio"));
+	}
+
+	@Test
+	void inactiveAndRemovedProductsAreNotFound() {
+		Product inactive = product(1L, "Retro phone", null, PHONES);
+		inactive.setActive(false);
+		index.index(inactive);
+		index.index(product(2L, "Desk phone", null, PHONES));
+		index.remove(2L);
+
+		assertEquals(List.of(), search("phone"));
+	}
+
+	@Test
+	void rebuildReplaysChangesMadeWhileLoading() {
+		index.index(product(1L, "Old speaker", null, AUDIO));
+
+		int indexed = index.rebuild(() -> {
+			// Concurrent writes while the loader reads a snapshot that predates them
+			index.index(product(3L, "New speaker", null, AUDIO));
+			index.remove(2L);
+			return List.of(product(1L, "Old speaker", null, AUDIO), product(2L, "Discontinued speaker", null, AUDIO));
+		});
+
+		assertEquals(2, indexed);
+		assertTrue(index.isReady());
+		assertEquals(List.of(1L, 3L), search("speaker"));
+	}
+
+	@Test
+	void failedRebuildKeepsTheCurrentIndex() {
+		index.index(product(1L, "Speaker", null, AUDIO));
+
+		try {
+			index.rebuild(() -> {
+				throw new IllegalStateException("database unavailable");
+			});
+		} catch (IllegalStateException expected) {
+			// Rethrown to the caller
+		}
+		index.index(product(2L, "Smart speaker", null, AUDIO));
+
+		assertEquals(List.of(1L, 2L), search("speaker"));
+	}
+
+	private List<Long> search(String query) {
+		return index.search(query, Pageable.unpaged()).getContent();
+	}
+
+	private static Product product(Long id, String name, String description, Category category) {
+		Product product = new Product(name, description, BigDecimal.TEN, 5, category);
+		product.setId(id);
+		return product;
+	}
+
+	private static Category category(Long id, String name) {
+		Category category = new Category(name, null);
+		category.setId(id);
+		return category;
+	}
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.entity.Category;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.search.ProductSuggestionIndex.Suggestion;
+import com.ecommerce.product.search.ProductSuggestionIndex.SuggestionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductSuggestionIndexTest {
+
+	private static final Category PHONES = category(1L, "Phones");
+	private static final Category AUDIO = category(2L, "Audio");
+
+	private final ProductSuggestionIndex index = new ProductSuggestionIndex();
+
+	@Test
+	void suggestionsAreTheMostPopularCappedAtMaxSuggestions() {
+		for (long id = 1; id <= 12; id++) {
+			index.index(product(id, "Speaker " + id, AUDIO, id));
+		}
+
+		List<Suggestion> suggestions = index.suggest("spe", 20);
+
+		assertEquals(ProductSuggestionIndex.MAX_SUGGESTIONS, suggestions.size());
+		assertEquals(List.of(12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L), ids(suggestions));
+		assertEquals(List.of(12L, 11L, 10L), ids(index.suggest("spe", 3)));
+	}
+
+	@Test
+	void everyWordStartIsAPrefix() {
+		index.index(product(1L, "Wireless Headphones", AUDIO, 0L));
+
+		assertEquals(List.of("Wireless Headphones"), texts(index.suggest("head", 5)));
+		assertEquals(List.of("Wireless Headphones"), texts(index.suggest("Wireless h", 5)));
+		assertEquals(List.of(), index.suggest("phones", 5));
+	}
+
+	@Test
+	void nameWithSeveralMatchingWordStartsIsSuggestedOnce() {
+		index.index(product(1L, "Phone phone case", PHONES, 0L));
+		index.index(product(2L, "Photo printer", PHONES, 0L));
+
+		assertEquals(List.of(1L, 2L), ids(index.suggest("pho", 5)));
+		assertEquals(List.of(1L), ids(index.suggest("phone", 5)));
+	}
+
+	@Test
+	void categoriesAreWeightedByTheirProductsSales() {
+		index.indexCategory(AUDIO);
+		index.index(product(1L, "Studio monitor", AUDIO, 5L));
+		index.index(product(2L, "Audiobook player", PHONES, 3L));
+
+		List<Suggestion> suggestions = index.suggest("audi", 5);
+
+		assertEquals(List.of("Audio", "Audiobook player"), texts(suggestions));
+		assertEquals(SuggestionType.CATEGORY, suggestions.get(0).getType());
+		assertEquals(5L, suggestions.get(0).getWeight());
+	}
+
+	@Test
+	void popularityChangesReorderSuggestions() {
+		index.index(product(1L, "Speaker mini", AUDIO, 5L));
+		index.index(product(2L, "Speaker max", AUDIO, 3L));
+
+		index.addPopularity(2L, 4L);
+
+		assertEquals(List.of(2L, 1L), ids(index.suggest("speaker", 5)));
+	}
+
+	@Test
+	void removedAndInactiveProductsAreNotSuggested() {
+		Product inactive = product(1L, "Retro phone", PHONES, 9L);
+		inactive.setActive(false);
+		index.index(inactive);
+		index.index(product(2L, "Desk phone", PHONES, 1L));
+		index.remove(2L);
+
+		assertEquals(List.of(), index.suggest("phone", 5));
+	}
+
+	@Test
+	void removingACategoryRemovesItsProducts() {
+		index.indexCategory(PHONES);
+		index.indexCategory(AUDIO);
+		index.index(product(1L, "Phone case", PHONES, 3L));
+		index.index(product(2L, "Phone headset", AUDIO, 1L));
+		index.removeCategory(PHONES.getId());
+
+		assertEquals(List.of("Phone headset"), texts(index.suggest("phone", 5)));
+	}
+
+	private static List<Long> ids(List<Suggestion> suggestions) {
+		return suggestions.stream().map(Suggestion::getId).collect(Collectors.toList());
+	}
+
+	private static List<String> texts(List<Suggestion> suggestions) {
+		return suggestions.stream().map(Suggestion::getText).collect(Collectors.toList());
+	}
+
+	private static Product product(Long id, String name, Category category, Long salesCount) {
+		Product product = new Product(name, null, BigDecimal.TEN, 5, category);
+		product.setId(id);
+		product.setSalesCount(salesCount);
+		return product;
+	}
+
+	private static Category category(Long id, String name) {
+		Category category = new Category(name, null);
+		category.setId(id);
+		return category;
+	}
+}
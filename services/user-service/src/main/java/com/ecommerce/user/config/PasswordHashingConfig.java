@@ -0,0 +1,44 @@
+package com.ecommerce.user.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PasswordHashingConfig {
+    
+    /**
+     * Bounded pool that runs every BCrypt hash, sized below the core count (half by default) so a
+     * login storm cannot take all CPU from other endpoints. When the queue is full new hashes are
+     * rejected instead of waiting behind a backlog they could only time out in.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService passwordHashingExecutor(
+            @Value("${auth.password-hashing.max-threads:0}") int maxThreads,
+            @Value("${auth.password-hashing.queue-capacity:32}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int threads = maxThreads > 0 ? maxThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        // Exports queue depth, active threads, and queue wait and run time of each hash
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+    }
+}
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.ecommerce.user.config;
 
+import com.ecommerce.common.security.IdentityHeaders;
+import com.ecommerce.common.security.IdentityHeadersAuthenticationFilter;
+import com.ecommerce.user.security.BoundedPasswordEncoder;
 import com.ecommerce.user.security.JwtAuthenticationFilter;
 import com.ecommerce.user.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -17,8 +24,11 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.concurrent.ExecutorService;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -31,7 +41,40 @@ public class SecurityConfig {
     private UserService userService;
     
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public IdentityHeaders identityHeaders(@Value("${identity.signing-secret}") String signingSecret) {
+        return new IdentityHeaders(signingSecret);
+    }
+    
+    /**
+     * Service-only endpoints, authenticated by the signed identity headers of the calling service
+     * instead of a user token. Client requests through the gateway carry user roles, never SERVICE.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain serviceSecurityFilterChain(
+            HttpSecurity http,
+            IdentityHeaders identityHeaders,
+            @Value("${identity.max-skew-seconds:30}") long maxSkewSeconds) throws Exception {
+        http
+            .securityMatcher("/api/users/*/status")
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(authz -> authz
+                .anyRequest().hasRole(IdentityHeaders.ROLE_SERVICE)
+            )
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .exceptionHandling(ex -> ex
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            )
+            .addFilterBefore(new IdentityHeadersAuthenticationFilter(identityHeaders, maxSkewSeconds),
+                UsernamePasswordAuthenticationFilter.class);
+        
+        return http.build();
+    }
+    
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(authz -> authz
@@ -42,22 +85,28 @@ public class SecurityConfig {
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
     }
     
+    /**
+     * BCrypt hashing runs on the bounded password-hashing pool, never on a request thread.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            ExecutorService passwordHashingExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${auth.password-hashing.timeout-ms:2000}") long timeoutMillis) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor, timeoutMillis, meterRegistry);
     }
     
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
     
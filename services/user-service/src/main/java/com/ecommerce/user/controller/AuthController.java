@@ -4,11 +4,14 @@ import com.ecommerce.common.dto.ApiResponse;
 import com.ecommerce.user.dto.UserLoginDto;
 import com.ecommerce.user.dto.UserResponseDto;
 import com.ecommerce.user.security.JwtService;
+import com.ecommerce.user.security.LoginThrottle;
 import com.ecommerce.user.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -31,16 +34,30 @@ public class AuthController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private LoginThrottle loginThrottle;
+    
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<Map<String, Object>>> login(
-            @Valid @RequestBody UserLoginDto loginDto) {
+            @Valid @RequestBody UserLoginDto loginDto,
+            HttpServletRequest request) {
+        
+        // Throttled attempts are rejected before any password is hashed
+        loginThrottle.checkAllowed(loginDto.getEmail(), request.getRemoteAddr());
         
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginDto.getEmail(),
-                        loginDto.getPassword()
-                )
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginDto.getEmail(),
+                            loginDto.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(loginDto.getEmail());
+            throw e;
+        }
+        loginThrottle.recordSuccess(loginDto.getEmail());
         
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String token = jwtService.generateToken(userDetails);
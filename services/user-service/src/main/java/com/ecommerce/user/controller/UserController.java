@@ -3,6 +3,7 @@ package com.ecommerce.user.controller;
 import com.ecommerce.common.dto.ApiResponse;
 import com.ecommerce.user.dto.UserRegistrationDto;
 import com.ecommerce.user.dto.UserResponseDto;
+import com.ecommerce.user.dto.UserStatusDto;
 import com.ecommerce.user.dto.UserUpdateDto;
 import com.ecommerce.user.service.UserService;
 import jakarta.validation.Valid;
@@ -38,6 +39,16 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success("User retrieved successfully", user));
     }
     
+    /**
+     * Lets the api-gateway check tokens for revocation. Only reachable with service identity
+     * headers; see SecurityConfig.
+     */
+    @GetMapping("/{id}/status")
+    public ResponseEntity<ApiResponse<UserStatusDto>> getUserStatus(@PathVariable Long id) {
+        UserStatusDto status = userService.getUserStatus(id);
+        return ResponseEntity.ok(ApiResponse.success("User status retrieved successfully", status));
+    }
+    
     @GetMapping("/email/{email}")
     public ResponseEntity<ApiResponse<UserResponseDto>> getUserByEmail(@PathVariable String email) {
         UserResponseDto user = userService.getUserByEmail(email);
@@ -0,0 +1,45 @@
+package com.ecommerce.user.dto;
+
+import com.ecommerce.user.entity.Role;
+
+/**
+ * A user's current role and active flag, for the api-gateway's token revocation check.
+ */
+public class UserStatusDto {
+    
+    private Long id;
+    private Role role;
+    private boolean active;
+    
+    public UserStatusDto() {}
+    
+    public UserStatusDto(Long id, Role role, boolean active) {
+        this.id = id;
+        this.role = role;
+        this.active = active;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public void setRole(Role role) {
+        this.role = role;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
\ No newline at end of file
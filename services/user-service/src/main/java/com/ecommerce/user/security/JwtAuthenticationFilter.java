@@ -1,6 +1,8 @@
 package com.ecommerce.user.security;
 
+import com.ecommerce.user.entity.User;
 import com.ecommerce.user.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserStatusChecker userStatusChecker;
+    
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -33,7 +38,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final Claims claims;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -41,16 +46,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        // Verified once here; the checks below reuse the claims
+        claims = jwtService.parseToken(jwt);
         
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(userEmail);
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtUserPrincipal principal = jwtService.toPrincipal(claims);
+            if (principal == null) {
+                // Token issued before user claims were embedded; fall back to a lookup
+                UserDetails userDetails = this.userService.loadUserByUsername(claims.getSubject());
+                principal = userDetails instanceof User user ? JwtUserPrincipal.from(user) : null;
+            }
             
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (principal != null && principal.isEnabled()
+                    && jwtService.isTokenValid(claims, principal)
+                    && userStatusChecker.isCurrent(principal.getUserId(), principal.getRole())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities()
+                        principal.getAuthorities()
                 );
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
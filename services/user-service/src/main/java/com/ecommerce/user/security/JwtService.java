@@ -1,14 +1,16 @@
 package com.ecommerce.user.security;
 
+import com.ecommerce.common.security.JwtTokenVerifier;
+import com.ecommerce.user.entity.Role;
+import com.ecommerce.user.entity.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,23 +19,77 @@ import java.util.function.Function;
 @Service
 public class JwtService {
     
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACTIVE = "active";
+    
     @Value("${jwt.secret:mySecretKey}")
     private String secretKey;
     
     @Value("${jwt.expiration:86400000}")
     private long jwtExpiration;
     
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+    
+    // Shared with the api-gateway so both verify and cache tokens the same way
+    private JwtTokenVerifier tokenVerifier;
+    
+    @PostConstruct
+    void init() {
+        tokenVerifier = new JwtTokenVerifier(secretKey, verifiedCacheMaxSize);
+    }
+    
+    /**
+     * Verifies the token's signature and expiry and returns its claims. A token is parsed
+     * at most once while it stays in the verified-token cache.
+     *
+     * @return the claims, or null if the token is malformed, forged or expired
+     */
+    public Claims parseToken(String token) {
+        return tokenVerifier.verify(token);
+    }
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
     
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        final Claims claims = parseToken(token);
+        return claims != null ? claimsResolver.apply(claims) : null;
     }
     
+    /**
+     * Issues a token for the user. For {@link User} entities the ID, role and active flag are
+     * embedded as claims, so requests carrying the token can be authorized without a lookup.
+     */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_ACTIVE, user.isActive());
+        }
+        return generateToken(claims, userDetails);
+    }
+    
+    /**
+     * Builds the principal from verified claims.
+     *
+     * @return the principal, or null for tokens issued without user claims
+     */
+    public JwtUserPrincipal toPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Boolean active = claims.get(CLAIM_ACTIVE, Boolean.class);
+        if (userId == null || role == null || active == null) {
+            return null;
+        }
+        try {
+            return new JwtUserPrincipal(userId, claims.getSubject(), Role.valueOf(role), active);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
     
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -41,16 +97,15 @@ public class JwtService {
     }
     
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final Claims claims = parseToken(token);
+        return claims != null && isTokenValid(claims, userDetails);
     }
     
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Checks already verified claims against the user, without parsing the token again.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !JwtTokenVerifier.isExpired(claims);
     }
     
     private String buildToken(
@@ -64,26 +119,7 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(tokenVerifier.getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
-    
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
-    private Key getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        if (keyBytes.length < 32) {
-            byte[] paddedKey = new byte[32];
-            System.arraycopy(keyBytes, 0, paddedKey, 0, Math.min(keyBytes.length, 32));
-            return Keys.hmacShaKeyFor(paddedKey);
-        }
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
\ No newline at end of file
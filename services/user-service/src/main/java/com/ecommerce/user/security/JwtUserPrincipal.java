@@ -0,0 +1,75 @@
+package com.ecommerce.user.security;
+
+import com.ecommerce.user.entity.Role;
+import com.ecommerce.user.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user built from verified token claims, so authorization needs no user lookup.
+ */
+public class JwtUserPrincipal implements UserDetails {
+    
+    private final Long userId;
+    private final String email;
+    private final Role role;
+    private final boolean active;
+    
+    public JwtUserPrincipal(Long userId, String email, Role role, boolean active) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+    }
+    
+    public static JwtUserPrincipal from(User user) {
+        return new JwtUserPrincipal(user.getId(), user.getEmail(), user.getRole(), user.isActive());
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
+    @Override
+    public String getPassword() {
+        return null;
+    }
+    
+    @Override
+    public String getUsername() {
+        return email;
+    }
+    
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+    
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.ecommerce.user.security;
+
+import com.ecommerce.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Rejects login attempts before any password is hashed: every attempt counts against the client
+ * IP, and failed attempts count against the email until a successful login clears them.
+ * Limits are held in memory per instance.
+ */
+@Component
+public class LoginThrottle {
+    
+    private static final String THROTTLED_MESSAGE = "Too many login attempts, please retry later";
+    
+    @Value("${auth.login-throttle.ip.max-attempts:20}")
+    private int maxAttemptsPerIp;
+    
+    @Value("${auth.login-throttle.ip.window-seconds:60}")
+    private long ipWindowSeconds;
+    
+    @Value("${auth.login-throttle.email.max-failures:5}")
+    private int maxFailuresPerEmail;
+    
+    @Value("${auth.login-throttle.email.window-seconds:900}")
+    private long emailWindowSeconds;
+    
+    @Value("${auth.login-throttle.max-keys:100000}")
+    private long maxKeys;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private SlidingWindowLimiter attemptsByIp;
+    private SlidingWindowLimiter failuresByEmail;
+    
+    @PostConstruct
+    void init() {
+        attemptsByIp = new SlidingWindowLimiter(maxAttemptsPerIp, Duration.ofSeconds(ipWindowSeconds), maxKeys);
+        failuresByEmail = new SlidingWindowLimiter(maxFailuresPerEmail, Duration.ofSeconds(emailWindowSeconds), maxKeys);
+    }
+    
+    /**
+     * Counts the attempt against the client IP.
+     *
+     * @throws TooManyRequestsException if the email or the IP is over its limit
+     */
+    public void checkAllowed(String email, String clientIp) {
+        long emailRetryAfter = failuresByEmail.retryAfterSeconds(normalize(email));
+        if (emailRetryAfter > 0) {
+            meterRegistry.counter("auth.login.throttled", "limit", "email").increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE, emailRetryAfter);
+        }
+        long ipRetryAfter = attemptsByIp.tryAcquire(clientIp);
+        if (ipRetryAfter > 0) {
+            meterRegistry.counter("auth.login.throttled", "limit", "ip").increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE, ipRetryAfter);
+        }
+    }
+    
+    public void recordFailure(String email) {
+        failuresByEmail.record(normalize(email));
+    }
+    
+    public void recordSuccess(String email) {
+        failuresByEmail.reset(normalize(email));
+    }
+    
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.ecommerce.user.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Per-key sliding-window counter. The count over the last window is estimated from the current
+ * and previous fixed windows, weighting the previous one by how much of it still overlaps, so
+ * each key costs three numbers instead of a timestamp per event.
+ */
+final class SlidingWindowLimiter {
+    
+    private final int limit;
+    private final long windowMillis;
+    private final Cache<String, Window> windows;
+    
+    SlidingWindowLimiter(int limit, Duration window, long maxKeys) {
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        // Two windows after its last event a key's count is zero again, so it can be dropped
+        this.windows = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(window.multipliedBy(2))
+            .build();
+    }
+    
+    /**
+     * Counts an event for the key if it is under the limit.
+     *
+     * @return 0 if the event was counted, otherwise the seconds until the key is under the limit
+     */
+    long tryAcquire(String key) {
+        Window window = windows.get(key, k -> new Window(System.currentTimeMillis()));
+        return window.tryAcquire(System.currentTimeMillis());
+    }
+    
+    /**
+     * @return 0 if the key is under the limit, otherwise the seconds until it will be
+     */
+    long retryAfterSeconds(String key) {
+        Window window = windows.getIfPresent(key);
+        return window != null ? window.retryAfterSeconds(System.currentTimeMillis()) : 0;
+    }
+    
+    void record(String key) {
+        windows.get(key, k -> new Window(System.currentTimeMillis())).record(System.currentTimeMillis());
+    }
+    
+    void reset(String key) {
+        windows.invalidate(key);
+    }
+    
+    private final class Window {
+        
+        private long currentStart;
+        private int current;
+        private int previous;
+        
+        private Window(long now) {
+            this.currentStart = now;
+        }
+        
+        private synchronized long tryAcquire(long now) {
+            long retryAfter = retryAfterSeconds(now);
+            if (retryAfter == 0) {
+                current++;
+            }
+            return retryAfter;
+        }
+        
+        private synchronized void record(long now) {
+            roll(now);
+            current++;
+        }
+        
+        private synchronized long retryAfterSeconds(long now) {
+            roll(now);
+            long elapsed = now - currentStart;
+            double estimate = previous * (1.0 - (double) elapsed / windowMillis) + current;
+            if (estimate < limit) {
+                return 0;
+            }
+            long waitMillis;
+            if (current < limit) {
+                // The previous window's share decays below the remaining allowance within this window
+                waitMillis = (long) Math.ceil(windowMillis * (1.0 - (double) (limit - current) / previous)) - elapsed;
+            } else {
+                // This window is full; wait for it to end and decay as the previous window
+                waitMillis = windowMillis - elapsed + (long) Math.ceil(windowMillis * (1.0 - (double) limit / current));
+            }
+            return Math.max(1, (waitMillis + 999) / 1000);
+        }
+        
+        private void roll(long now) {
+            long windowsPassed = (now - currentStart) / windowMillis;
+            if (windowsPassed > 0) {
+                previous = windowsPassed == 1 ? current : 0;
+                current = 0;
+                currentStart += windowsPassed * windowMillis;
+            }
+        }
+    }
+}
\ No newline at end of file
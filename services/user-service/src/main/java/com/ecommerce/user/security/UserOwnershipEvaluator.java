@@ -1,7 +1,6 @@
 package com.ecommerce.user.security;
 
 import com.ecommerce.user.entity.Role;
-import com.ecommerce.user.entity.User;
 import com.ecommerce.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -24,33 +23,19 @@ public class UserOwnershipEvaluator {
      * @return true if the current user is authorized to access the target user's resource
      */
     public boolean canAccessUser(Long targetUserId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        JwtUserPrincipal currentUser = currentPrincipal();
         
-        if (authentication == null || !authentication.isAuthenticated()) {
+        if (currentUser == null) {
             return false;
         }
         
-        try {
-            // Get the current user's email from the authentication context
-            String currentUserEmail = authentication.getName();
-            User currentUser = userService.getUserEntityByEmail(currentUserEmail);
-            
-            if (currentUser == null) {
-                return false;
-            }
-            
-            // ADMIN users can access any user's resources
-            if (currentUser.getRole() == Role.ADMIN) {
-                return true;
-            }
-            
-            // Regular users can only access their own resources
-            return currentUser.getId().equals(targetUserId);
-            
-        } catch (Exception e) {
-            // If there's any error (e.g., user not found), deny access
-            return false;
+        // ADMIN users can access any user's resources
+        if (currentUser.getRole() == Role.ADMIN) {
+            return true;
         }
+        
+        // Regular users can only access their own resources
+        return currentUser.getUserId().equals(targetUserId);
     }
     
     /**
@@ -59,18 +44,31 @@ public class UserOwnershipEvaluator {
      * @return true if the current user has ADMIN role
      */
     public boolean isAdmin() {
+        JwtUserPrincipal currentUser = currentPrincipal();
+        return currentUser != null && currentUser.getRole() == Role.ADMIN;
+    }
+    
+    /**
+     * Resolves the current user from the authentication. Requests authenticated by
+     * JwtAuthenticationFilter already carry the ID and role, so no lookup is needed.
+     */
+    private JwtUserPrincipal currentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
+            return null;
+        }
+        
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal;
         }
         
         try {
-            String currentUserEmail = authentication.getName();
-            User currentUser = userService.getUserEntityByEmail(currentUserEmail);
-            return currentUser != null && currentUser.getRole() == Role.ADMIN;
+            // Authenticated some other way; get the current user from the email
+            return JwtUserPrincipal.from(userService.getUserEntityByEmail(authentication.getName()));
         } catch (Exception e) {
-            return false;
+            // If there's any error (e.g., user not found), deny access
+            return null;
         }
     }
 }
@@ -0,0 +1,66 @@
+package com.ecommerce.user.security;
+
+import com.ecommerce.user.entity.Role;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Optional revocation check for tokens of users deactivated, or given a different role, after
+ * the token was issued. Statuses are cached briefly, so it costs at most one query per user
+ * per TTL.
+ */
+@Component
+public class UserStatusChecker {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${jwt.revocation-check.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${jwt.revocation-check.ttl-seconds:30}")
+    private long ttlSeconds;
+    
+    @Value("${jwt.revocation-check.max-size:10000}")
+    private long maxSize;
+    
+    // Role of each active user; empty for users that are inactive or gone
+    private Cache<Long, Optional<Role>> activeRoles;
+    
+    @PostConstruct
+    void init() {
+        activeRoles = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+    
+    /**
+     * Whether the user is still active and still holds the role the token was issued with.
+     */
+    public boolean isCurrent(Long userId, Role tokenRole) {
+        if (!enabled) {
+            return true;
+        }
+        Optional<Role> role = activeRoles.get(userId, id -> userRepository.findById(id)
+            .filter(User::isActive)
+            .map(User::getRole));
+        return role.isPresent() && role.get() == tokenRole;
+    }
+    
+    /**
+     * Revokes the user's tokens on this instance immediately; other instances notice within the TTL.
+     */
+    public void markInactive(Long userId) {
+        activeRoles.put(userId, Optional.empty());
+    }
+}
\ No newline at end of file
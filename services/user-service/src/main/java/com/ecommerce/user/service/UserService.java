@@ -4,9 +4,11 @@ import com.ecommerce.common.exception.BadRequestException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
 import com.ecommerce.user.dto.UserRegistrationDto;
 import com.ecommerce.user.dto.UserResponseDto;
+import com.ecommerce.user.dto.UserStatusDto;
 import com.ecommerce.user.dto.UserUpdateDto;
 import com.ecommerce.user.entity.User;
 import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.security.UserStatusChecker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -26,6 +28,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserStatusChecker userStatusChecker;
+    
     public UserResponseDto registerUser(UserRegistrationDto registrationDto) {
         if (!registrationDto.getPassword().equals(registrationDto.getConfirmPassword())) {
             throw new BadRequestException("Password and confirm password do not match");
@@ -53,6 +58,12 @@ public class UserService implements UserDetailsService {
         return convertToResponseDto(user);
     }
     
+    public UserStatusDto getUserStatus(Long id) {
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        return new UserStatusDto(user.getId(), user.getRole(), user.isActive());
+    }
+    
     public UserResponseDto getUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
@@ -130,6 +141,7 @@ public class UserService implements UserDetailsService {
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         user.setActive(false);
         userRepository.save(user);
+        userStatusChecker.markInactive(id);
     }
     
     @Override
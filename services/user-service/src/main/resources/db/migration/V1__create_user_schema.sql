@@ -0,0 +1,17 @@
+-- User service schema
+-- IF NOT EXISTS keeps this safe on databases previously created by ddl-auto=update
+-- The unique constraint on email backs findByEmail, existsByEmail and findByEmailAndActive
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    role VARCHAR(255) NOT NULL,
+    is_active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);